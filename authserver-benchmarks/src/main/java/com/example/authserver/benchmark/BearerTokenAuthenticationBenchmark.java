@@ -0,0 +1,134 @@
+package com.example.authserver.benchmark;
+
+import com.example.authserver.cache.ExpiringCache;
+import com.example.authserver.entity.TokenRevocation;
+import com.example.authserver.entity.User;
+import com.example.authserver.enums.BearerPrincipalMode;
+import com.example.authserver.enums.SigningAlgorithm;
+import com.example.authserver.repository.TokenRevocationRepository;
+import com.example.authserver.repository.UserRepository;
+import com.example.authserver.revocation.RevocationList;
+import com.example.authserver.revocation.TokenRevokedEvent;
+import com.example.authserver.security.authentication.BearerTokenAuthenticationProvider;
+import com.example.authserver.security.authentication.BearerTokenAuthenticationToken;
+import com.example.authserver.security.authentication.VerifiedTokenResolver;
+import com.example.authserver.services.impl.JwtServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Proxy;
+import java.security.KeyPair;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BearerTokenAuthenticationProvider#authenticate(Authentication)} end to end,
+ * i.e. signature verification, claim checks and authority mapping.
+ *
+ * <p>The user lookup is answered by an in-memory stub so only the CPU cost of the
+ * provider itself is measured. {@code tokenCacheSize=0} disables the verified-token cache,
+ * so every call verifies the signature; otherwise every call after the first is a cache hit.
+ * With {@code principalMode=CLAIMS} the user stub is never called. {@code revokedEntries} other
+ * tokens are revoked, so the revocation check passes its filter instead of returning early.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BearerTokenAuthenticationBenchmark {
+
+    @Param({"0", "10000"})
+    private int tokenCacheSize;
+
+    @Param({"USER", "CLAIMS"})
+    private BearerPrincipalMode principalMode;
+
+    @Param({"0", "10000"})
+    private int revokedEntries;
+
+    private BearerTokenAuthenticationProvider provider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        KeyPair keyPair = BenchmarkKeys.generate(SigningAlgorithm.RS256);
+        JwtServiceImpl jwtService = new JwtServiceImpl(SigningAlgorithm.RS256,
+                                                       keyPair.getPublic(), keyPair.getPrivate());
+
+        User user = User.builder()
+                .user_id("user-id")
+                .username("benchmark")
+                .email("benchmark@example.com")
+                .enabled(true)
+                .build();
+
+        RevocationList revocationList = new RevocationList(emptyTokenRevocationRepository(), 10000,
+                                                           new SimpleMeterRegistry());
+        for (int i = 0; i < revokedEntries; i++) {
+            revocationList.onTokenRevoked(new TokenRevokedEvent(TokenRevocation.builder()
+                    .jti(UUID.randomUUID().toString())
+                    .userId("other-user-" + i)
+                    .clientId("client-id")
+                    .expiresAt(LocalDateTime.now().plusHours(1))
+                    .build()));
+        }
+
+        provider = new BearerTokenAuthenticationProvider(
+                new VerifiedTokenResolver(jwtService, new ExpiringCache<>(tokenCacheSize), revocationList),
+                userRepositoryReturning(user), principalMode);
+
+        Date expiresAt = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        token = jwtService.generateToken(user.getUser_id(), expiresAt,
+                Map.of("scopes", "openid email profile address phone"), "client-id");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Authentication authenticate() {
+        return provider.authenticate(BearerTokenAuthenticationToken.unauthenticated(token));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Authentication authenticateContended() {
+        return provider.authenticate(BearerTokenAuthenticationToken.unauthenticated(token));
+    }
+
+    /**
+     * Builds a {@link TokenRevocationRepository} without revocations.
+     */
+    private static TokenRevocationRepository emptyTokenRevocationRepository() {
+        return (TokenRevocationRepository) Proxy.newProxyInstance(
+                TokenRevocationRepository.class.getClassLoader(),
+                new Class<?>[]{TokenRevocationRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("findAllBy")) {
+                        return List.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Builds a {@link UserRepository} whose {@code findById} always returns the given user.
+     */
+    private static UserRepository userRepositoryReturning(User user) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if ("findById".equals(method.getName())) {
+                        return Optional.of(user);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
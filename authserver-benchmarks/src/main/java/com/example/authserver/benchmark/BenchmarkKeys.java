@@ -0,0 +1,39 @@
+package com.example.authserver.benchmark;
+
+import com.example.authserver.enums.SigningAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * Generates throw-away key material so benchmarks do not depend on the
+ * (git-ignored) PEM files under {@code keystore/}.
+ */
+public final class BenchmarkKeys {
+
+    private BenchmarkKeys() {
+    }
+
+    /**
+     * Generates a key pair for the given algorithm, with the sizes used in production:
+     * RSA-2048, EC P-256 and Ed25519.
+     *
+     * @param algorithm the signing algorithm
+     * @return a fresh key pair
+     */
+    public static KeyPair generate(SigningAlgorithm algorithm) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm());
+            switch (algorithm) {
+                case RS256 -> generator.initialize(2048);
+                case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+                case EDDSA -> { }
+            }
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
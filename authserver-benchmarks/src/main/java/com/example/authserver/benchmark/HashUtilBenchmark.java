@@ -0,0 +1,34 @@
+package com.example.authserver.benchmark;
+
+import com.example.authserver.util.HashUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link HashUtil#generateSha256Base64Encoded(String)} as used for
+ * PKCE {@code S256} challenge verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashUtilBenchmark {
+
+    // 43 characters, the minimum code_verifier length allowed by RFC 7636
+    private String codeVerifier = "dBjftJeZ4CVP-mB92K27uhbUJU1p1r_wW1gFWFOEjXk";
+
+    @Benchmark
+    @Threads(1)
+    public String sha256Base64() {
+        return HashUtil.generateSha256Base64Encoded(codeVerifier);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String sha256Base64Contended() {
+        return HashUtil.generateSha256Base64Encoded(codeVerifier);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.authserver.benchmark;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.enums.SigningAlgorithm;
+import com.example.authserver.services.impl.JwtServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JWT signing and verification in {@link JwtServiceImpl}.
+ *
+ * <p>Every benchmark runs once per supported {@link SigningAlgorithm}. The {@code *Contended}
+ * variants run the same operation from all available cores against a single shared service
+ * instance.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final Map<String, String> CLAIMS = Map.of("scopes", "openid email profile address phone");
+
+    @Param({"RS256", "ES256", "EDDSA"})
+    private SigningAlgorithm algorithm;
+
+    private JwtServiceImpl jwtService;
+    private Date expiresAt;
+    private String token;
+
+    @Setup
+    public void setup() {
+        KeyPair keyPair = BenchmarkKeys.generate(algorithm);
+        jwtService = new JwtServiceImpl(algorithm, keyPair.getPublic(), keyPair.getPrivate());
+        expiresAt = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        token = jwtService.generateToken("user-id", expiresAt, CLAIMS, "client-id");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generateToken() {
+        return jwtService.generateToken("user-id", expiresAt, CLAIMS, "client-id");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateTokenContended() {
+        return jwtService.generateToken("user-id", expiresAt, CLAIMS, "client-id");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public DecodedJWT verifyToken() {
+        return jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public DecodedJWT verifyTokenContended() {
+        return jwtService.verifyToken(token);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.authserver.benchmark;
+
+import com.example.authserver.entity.AuthorizationCode;
+import com.example.authserver.entity.AuthorizationConsent;
+import com.example.authserver.entity.Client;
+import com.example.authserver.scope.ScopeSet;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.StringUtils;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing scopes on the entities and the scope check performed while validating an
+ * authorization request, against the former split-into-a-set approach ({@code legacy*}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScopeBenchmark {
+
+    private static final String SCOPES = "openid email profile address phone";
+
+    private Client client;
+    private AuthorizationCode authorizationCode;
+    private AuthorizationConsent consent;
+    private ScopeSet clientScopes;
+
+    @Setup
+    public void setup() {
+        client = Client.builder().clientId("client-id").scopes(SCOPES).build();
+        authorizationCode = AuthorizationCode.builder().code("code").client(client).scopes(SCOPES).build();
+        consent = AuthorizationConsent.builder().id("consent").clientId("client-id").scope(SCOPES).build();
+        clientScopes = client.getScopeSet();
+    }
+
+    @Benchmark
+    public ScopeSet clientScopeSet() {
+        return client.getScopeSet();
+    }
+
+    @Benchmark
+    public ScopeSet authorizationCodeScopeSet() {
+        return authorizationCode.getScopeSet();
+    }
+
+    @Benchmark
+    public ScopeSet consentScopeSet() {
+        return consent.getScopeSet();
+    }
+
+    @Benchmark
+    public Set<String> legacyScopesSet() {
+        return Set.of(StringUtils.delimitedListToStringArray(SCOPES, " "));
+    }
+
+    /**
+     * Mirrors the scope check in {@code ClientAuthorizationServiceImpl.validateClientDetails}.
+     */
+    @Benchmark
+    @Threads(1)
+    public boolean validateRequestedScopes() {
+        return clientScopes.containsAll(ScopeSet.parse(SCOPES));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean validateRequestedScopesContended() {
+        return clientScopes.containsAll(ScopeSet.parse(SCOPES));
+    }
+
+    /**
+     * The former check: split the request and re-split the client scopes for every requested scope.
+     */
+    @Benchmark
+    @Threads(1)
+    public boolean legacyValidateRequestedScopes() {
+        for (String scope : SCOPES.split(" ")) {
+            if (scope.isBlank()) continue;
+            if (!legacyScopesSet().contains(scope)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.authserver.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Drives the browser and client side of the authorization code flow over HTTP:
+ * form login, {@code /oauth2/authorize}, the consent screen when shown,
+ * {@code /api/oauth2/token}, {@code /userinfo} and a batch {@code /api/oauth2/introspect}
+ * of the issued access and refresh token. Also requests machine-to-machine tokens through the
+ * {@code client_credentials} grant.
+ *
+ * <p>One instance represents one browser session and must be used by a single thread.
+ * The {@link HttpClient} itself is shared between all instances.</p>
+ */
+class AuthorizationFlowClient {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern SESSION_COOKIE = Pattern.compile("JSESSIONID=([^;]+)");
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    private String sessionId;
+
+    AuthorizationFlowClient(HttpClient httpClient, String baseUrl, LatencyRecorder recorder) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    boolean isLoggedIn() {
+        return sessionId != null;
+    }
+
+    void logout() {
+        sessionId = null;
+    }
+
+    /**
+     * Logs the given user in through the form login page.
+     */
+    void login(String username, String password) throws IOException, InterruptedException {
+        sessionId = null;
+        long start = System.nanoTime();
+
+        HttpResponse<String> page = send(get("/login"));
+        List<Map.Entry<String, String>> form = List.of(
+                Map.entry("username", username),
+                Map.entry("password", password),
+                Map.entry("_csrf", csrfToken(Step.LOGIN, page)));
+
+        HttpResponse<String> response = send(post("/login", form));
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("error")) {
+            fail(Step.LOGIN, response);
+        }
+        recorder.record(Step.LOGIN, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs authorize, optional consent, token and userinfo for an already logged-in session.
+     * With {@code pkce} a SHA-256 code challenge is sent on authorize and the verifier on token.
+     */
+    void authorizeAndCallUserInfo(String clientId, String clientSecret, String redirectUri, String scope, boolean pkce)
+            throws IOException, InterruptedException {
+
+        String codeVerifier = pkce ? codeVerifier() : null;
+
+        long start = System.nanoTime();
+        List<Map.Entry<String, String>> authorizeParameters = new ArrayList<>(List.of(
+                Map.entry("client_id", clientId),
+                Map.entry("response_type", "code"),
+                Map.entry("redirect_uri", redirectUri),
+                Map.entry("scope", scope),
+                Map.entry("state", "load")));
+        if (pkce) {
+            authorizeParameters.add(Map.entry("code_challenge", s256(codeVerifier)));
+            authorizeParameters.add(Map.entry("code_challenge_method", "S256"));
+        }
+        HttpResponse<String> authorize = send(get("/oauth2/authorize?" + encode(authorizeParameters)));
+        String location = redirectLocation(Step.AUTHORIZE, authorize);
+        recorder.record(Step.AUTHORIZE, System.nanoTime() - start);
+
+        if (location.endsWith("/oauth2/consent")) {
+            start = System.nanoTime();
+            HttpResponse<String> consentPage = send(get("/oauth2/consent"));
+            if (consentPage.statusCode() != 200) {
+                fail(Step.CONSENT, consentPage);
+            }
+            List<Map.Entry<String, String>> form = new ArrayList<>();
+            for (String approved : scope.split(" ")) {
+                form.add(Map.entry("scopes", approved));
+            }
+            form.add(Map.entry("clientId", clientId));
+            form.add(Map.entry("_csrf", csrfToken(Step.CONSENT, consentPage)));
+            location = redirectLocation(Step.CONSENT, send(post("/oauth2/consent", form)));
+            recorder.record(Step.CONSENT, System.nanoTime() - start);
+        }
+
+        String code = queryParameter(location, "code");
+        if (code == null) {
+            throw new FlowException(Step.AUTHORIZE, "no code in redirect: " + location);
+        }
+
+        start = System.nanoTime();
+        List<Map.Entry<String, String>> tokenForm = new ArrayList<>(List.of(
+                Map.entry("grant_type", "authorization_code"),
+                Map.entry("code", code),
+                Map.entry("redirect_uri", redirectUri)));
+        if (pkce) {
+            tokenForm.add(Map.entry("code_verifier", codeVerifier));
+        }
+        String basic = Base64.getEncoder()
+                .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> token = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/oauth2/token"))
+                        .header("Authorization", "Basic " + basic)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(encode(tokenForm)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (token.statusCode() != 200) {
+            fail(Step.TOKEN, token);
+        }
+        JsonNode tokenBody = objectMapper.readTree(token.body());
+        String accessToken = tokenBody.path("access_token").asText(null);
+        String refreshToken = tokenBody.path("refresh_token").asText(null);
+        if (accessToken == null || refreshToken == null) {
+            fail(Step.TOKEN, token);
+        }
+        recorder.record(Step.TOKEN, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        HttpResponse<String> userInfo = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/userinfo"))
+                        .header("Authorization", "Bearer " + accessToken)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (userInfo.statusCode() != 200) {
+            fail(Step.USERINFO, userInfo);
+        }
+        JsonNode body = objectMapper.readTree(userInfo.body());
+        if (!body.hasNonNull("sub")) {
+            fail(Step.USERINFO, userInfo);
+        }
+        recorder.record(Step.USERINFO, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        HttpResponse<String> introspection = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/oauth2/introspect"))
+                        .header("Authorization", "Basic " + basic)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                                Map.of("tokens", List.of(accessToken, refreshToken)))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (introspection.statusCode() != 200) {
+            fail(Step.INTROSPECT, introspection);
+        }
+        JsonNode results = objectMapper.readTree(introspection.body()).path("results");
+        if (!results.path(0).path("active").asBoolean() || !results.path(1).path("active").asBoolean()) {
+            fail(Step.INTROSPECT, introspection);
+        }
+        recorder.record(Step.INTROSPECT, System.nanoTime() - start);
+    }
+
+    /**
+     * Requests an access token with the client credentials grant.
+     */
+    void clientCredentials(String clientId, String clientSecret, String scope) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        String basic = Base64.getEncoder()
+                .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> token = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/oauth2/token"))
+                        .header("Authorization", "Basic " + basic)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(encode(List.of(
+                                Map.entry("grant_type", "client_credentials"),
+                                Map.entry("scopes", scope)))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (token.statusCode() != 200 || !objectMapper.readTree(token.body()).hasNonNull("access_token")) {
+            fail(Step.CLIENT_CREDENTIALS, token);
+        }
+        recorder.record(Step.CLIENT_CREDENTIALS, System.nanoTime() - start);
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder post(String path, List<Map.Entry<String, String>> form) {
+        return request(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(form)));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (sessionId != null) {
+            builder.header("Cookie", "JSESSIONID=" + sessionId);
+        }
+        return builder;
+    }
+
+    /**
+     * Sends a browser request, tracking the session cookie (which changes on login).
+     */
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        List<String> cookies = response.headers().allValues("Set-Cookie");
+        for (String cookie : cookies) {
+            Matcher matcher = SESSION_COOKIE.matcher(cookie);
+            if (matcher.find()) {
+                sessionId = matcher.group(1);
+            }
+        }
+        return response;
+    }
+
+    private String redirectLocation(Step step, HttpResponse<String> response) {
+        if (response.statusCode() != 302) {
+            fail(step, response);
+        }
+        return response.headers().firstValue("Location")
+                .orElseThrow(() -> new FlowException(step, "redirect without Location"));
+    }
+
+    private static String csrfToken(Step step, HttpResponse<String> page) {
+        Matcher matcher = CSRF.matcher(page.body());
+        if (!matcher.find()) {
+            throw new FlowException(step, "no csrf token on " + page.uri());
+        }
+        return matcher.group(1);
+    }
+
+    private static String codeVerifier() {
+        byte[] random = new byte[32];
+        ThreadLocalRandom.current().nextBytes(random);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+    }
+
+    /** Challenge of the RFC 7636 {@code S256} method: unpadded base64url of the SHA-256 digest. */
+    private static String s256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String queryParameter(String uri, String name) {
+        String query = URI.create(uri).getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && pair.substring(0, separator).equals(name)) {
+                return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static String encode(List<Map.Entry<String, String>> form) {
+        return form.stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static void fail(Step step, HttpResponse<String> response) {
+        throw new FlowException(step, response.statusCode() + " from " + response.uri());
+    }
+
+    /**
+     * Signals that a step of the flow returned an unexpected response.
+     */
+    static class FlowException extends RuntimeException {
+
+        private final Step step;
+
+        FlowException(Step step, String message) {
+            super(step + ": " + message);
+            this.step = step;
+        }
+
+        Step getStep() {
+            return step;
+        }
+    }
+}
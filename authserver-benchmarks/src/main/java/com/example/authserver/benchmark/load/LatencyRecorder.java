@@ -0,0 +1,54 @@
+package com.example.authserver.benchmark.load;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Collects raw per-step latencies of a single worker thread.
+ *
+ * <p>Not thread-safe: every worker owns one recorder and the recorders are merged
+ * once the run is over, so recording never contends.</p>
+ */
+class LatencyRecorder {
+
+    private final Map<Step, long[]> samples = new EnumMap<>(Step.class);
+    private final Map<Step, Integer> counts = new EnumMap<>(Step.class);
+    private final Map<Step, Integer> errors = new EnumMap<>(Step.class);
+
+    private volatile boolean recording;
+
+    void startRecording() {
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+    }
+
+    void record(Step step, long nanos) {
+        if (!recording) return;
+        long[] values = samples.computeIfAbsent(step, s -> new long[1024]);
+        int count = counts.getOrDefault(step, 0);
+        if (count == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+            samples.put(step, values);
+        }
+        values[count] = nanos;
+        counts.put(step, count + 1);
+    }
+
+    void recordError(Step step) {
+        if (!recording) return;
+        errors.merge(step, 1, Integer::sum);
+    }
+
+    long[] samples(Step step) {
+        long[] values = samples.get(step);
+        return values == null ? new long[0] : Arrays.copyOf(values, counts.get(step));
+    }
+
+    int errors(Step step) {
+        return errors.getOrDefault(step, 0);
+    }
+}
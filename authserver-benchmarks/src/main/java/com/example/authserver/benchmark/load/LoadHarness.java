@@ -0,0 +1,284 @@
+package com.example.authserver.benchmark.load;
+
+import com.example.authserver.AuthorizationServerApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process end-to-end load harness.
+ *
+ * <p>Boots the authorization server against an embedded H2 database in MySQL mode, seeds it
+ * through {@link SyntheticDataGenerator} and then drives login, authorize, consent, token and
+ * userinfo over real HTTP from {@code --concurrency} closed-loop virtual users. Per-step
+ * p50/p99/p999 latency and requests/sec are printed and written as JSON; with {@code --metrics}
+ * the server's Prometheus meters are saved as well.</p>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.authserver.benchmark.load.LoadHarness \
+ *      --users=100000 --clients=500 --concurrency=64 --duration=120
+ * </pre>
+ *
+ * @see LoadHarnessOptions
+ */
+public class LoadHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadHarness.class);
+
+    private static final String HMAC_KEY_PROPERTY = "app.security.client-secret.hmac-key";
+
+    public static void main(String[] args) throws Exception {
+        LoadHarnessOptions options = LoadHarnessOptions.parse(args);
+
+        try (ConfigurableApplicationContext context = startServer(options)) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+
+            new SyntheticDataGenerator(jdbcTemplate, options.batchSize())
+                    .seed(options.users(), options.clients(), options.consentRatio(),
+                            passwordEncoder.encode(SyntheticDataGenerator.USER_PASSWORD),
+                            passwordEncoder.encode(SyntheticDataGenerator.CLIENT_SECRET));
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            List<StepResult> results = run(options, baseUrl);
+
+            print(results);
+            write(options, results);
+            if (!options.metricsFile().isEmpty()) {
+                writeMetrics(options, "http://localhost:" + context.getEnvironment().getProperty("local.management.port"));
+            }
+        }
+    }
+
+    /**
+     * Starts the authorization server on a random plain HTTP port with an embedded database
+     * and freshly generated signing keys.
+     */
+    private static ConfigurableApplicationContext startServer(LoadHarnessOptions options) throws IOException {
+        Path keys = writeSigningKeys();
+
+        List<String> properties = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--server.ssl.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:authserver-load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + options.poolSize(),
+                "--spring.sql.init.mode=always",
+                "--spring.sql.init.schema-locations=classpath:loadtest/schema.sql",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--app.jwt.public-key-location=" + keys.resolve("public.pem").toUri(),
+                "--app.jwt.private-key-location=" + keys.resolve("private.pem").toUri()
+        ));
+        if (!options.serverProperties().containsKey(HMAC_KEY_PROPERTY)) {
+            properties.add("--" + HMAC_KEY_PROPERTY + "=" + generateHmacKey());
+        }
+        options.serverProperties().forEach((name, value) -> properties.add("--" + name + "=" + value));
+
+        return new SpringApplicationBuilder(AuthorizationServerApplication.class).run(properties.toArray(String[]::new));
+    }
+
+    /**
+     * A random client secret key, so the seeded bcrypt secrets are re-hashed as in production.
+     */
+    private static String generateHmacKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return Base64.getEncoder().encodeToString(key);
+    }
+
+    /**
+     * Runs the closed-loop workers for warmup plus measured duration and aggregates their samples.
+     */
+    private static List<StepResult> run(LoadHarnessOptions options, String baseUrl) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+
+        long deadline = System.nanoTime() + options.warmup().plusNanos(options.duration().toNanos()).toNanos();
+        for (int i = 0; i < options.concurrency(); i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            workers.execute(() -> drive(options, new AuthorizationFlowClient(httpClient, baseUrl, recorder),
+                    recorder, deadline));
+        }
+
+        logger.info("Warming up for {} s with {} virtual users", options.warmup().toSeconds(), options.concurrency());
+        Thread.sleep(options.warmup().toMillis());
+        recorders.forEach(LatencyRecorder::startRecording);
+
+        long measuredStart = System.nanoTime();
+        logger.info("Measuring for {} s", options.duration().toSeconds());
+        Thread.sleep(options.duration().toMillis());
+        recorders.forEach(LatencyRecorder::stopRecording);
+        long measuredNanos = System.nanoTime() - measuredStart;
+
+        workers.shutdown();
+        if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+
+        List<StepResult> results = new ArrayList<>();
+        for (Step step : Step.values()) {
+            results.add(StepResult.of(step, recorders, measuredNanos));
+        }
+        return results;
+    }
+
+    /**
+     * Loop of a single virtual user: picks a random seeded user and runs the flow until the deadline.
+     */
+    private static void drive(LoadHarnessOptions options, AuthorizationFlowClient flow,
+                              LatencyRecorder recorder, long deadline) {
+        if (LoadHarnessOptions.CLIENT_CREDENTIALS_FLOW.equals(options.flow())) {
+            driveClientCredentials(options, flow, recorder, deadline);
+            return;
+        }
+        int userIndex = ThreadLocalRandom.current().nextInt(options.users());
+
+        while (System.nanoTime() < deadline) {
+            if (!options.reuseSession()) {
+                userIndex = ThreadLocalRandom.current().nextInt(options.users());
+                flow.logout();
+            }
+            String clientId = SyntheticDataGenerator.clientId(
+                    SyntheticDataGenerator.clientIndexForUser(userIndex, options.clients()));
+            try {
+                if (!flow.isLoggedIn()) {
+                    flow.login(SyntheticDataGenerator.username(userIndex), SyntheticDataGenerator.USER_PASSWORD);
+                }
+                flow.authorizeAndCallUserInfo(clientId, SyntheticDataGenerator.CLIENT_SECRET,
+                        SyntheticDataGenerator.REDIRECT_URI, options.scope(), options.pkce());
+            } catch (AuthorizationFlowClient.FlowException e) {
+                recorder.recordError(e.getStep());
+                logger.debug(e.getMessage());
+                flow.logout();
+            } catch (IOException e) {
+                logger.warn("Request failed: {}", e.getMessage());
+                flow.logout();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Loop of a single virtual user of the client credentials flow: token requests of random seeded clients.
+     */
+    private static void driveClientCredentials(LoadHarnessOptions options, AuthorizationFlowClient flow,
+                                               LatencyRecorder recorder, long deadline) {
+        while (System.nanoTime() < deadline) {
+            String clientId = SyntheticDataGenerator.clientId(ThreadLocalRandom.current().nextInt(options.clients()));
+            try {
+                flow.clientCredentials(clientId, SyntheticDataGenerator.CLIENT_SECRET, options.scope());
+            } catch (AuthorizationFlowClient.FlowException e) {
+                recorder.recordError(e.getStep());
+                logger.debug(e.getMessage());
+            } catch (IOException e) {
+                logger.warn("Request failed: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void print(List<StepResult> results) {
+        StringBuilder table = new StringBuilder(String.format("%n%-18s %10s %8s %10s %10s %10s %10s %10s%n",
+                "step", "count", "errors", "req/s", "p50 us", "p99 us", "p999 us", "max us"));
+        for (StepResult result : results) {
+            table.append(String.format("%-18s %10d %8d %10.1f %10.0f %10.0f %10.0f %10.0f%n",
+                    result.step(), result.count(), result.errors(), result.requestsPerSecond(),
+                    result.p50(), result.p99(), result.p999(), result.max()));
+        }
+        logger.info(table.toString());
+    }
+
+    private static void write(LoadHarnessOptions options, List<StepResult> results) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options);
+        report.put("steps", results);
+
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(new File(options.resultFile()), report);
+        logger.info("Results written to {}", options.resultFile());
+    }
+
+    private static void writeMetrics(LoadHarnessOptions options, String managementUrl) throws IOException, InterruptedException {
+        HttpResponse<Path> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(managementUrl + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofFile(Path.of(options.metricsFile())));
+        if (response.statusCode() != 200) {
+            throw new IOException("Metrics scrape failed with status " + response.statusCode());
+        }
+        logger.info("Metrics written to {}", options.metricsFile());
+    }
+
+    /**
+     * Writes a fresh RSA key pair as PEM files into a temporary directory.
+     */
+    private static Path writeSigningKeys() throws IOException {
+        KeyPair keyPair;
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            keyPair = generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Path directory = Files.createTempDirectory("authserver-load-keys");
+        directory.toFile().deleteOnExit();
+        Files.writeString(directory.resolve("public.pem"),
+                pem("PUBLIC KEY", keyPair.getPublic().getEncoded()), StandardCharsets.US_ASCII);
+        Files.writeString(directory.resolve("private.pem"),
+                pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()), StandardCharsets.US_ASCII);
+        return directory;
+    }
+
+    private static String pem(String type, byte[] der) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        return "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n";
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.authserver.benchmark.load;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command line options of the {@link LoadHarness}, given as {@code --name=value}.
+ *
+ * @param users         number of seeded users
+ * @param clients       number of seeded confidential clients
+ * @param consentRatio  fraction of users that already consented to their client (0..1)
+ * @param batchSize     rows per JDBC batch while seeding
+ * @param concurrency   number of concurrent virtual users driving the flow
+ * @param warmup        time to run before samples are recorded
+ * @param duration      measured time
+ * @param reuseSession  log in once per virtual user instead of once per iteration
+ * @param scope         scope requested on every authorization request
+ * @param pkce          send a code challenge and verifier, exercising the PKCE token path
+ * @param flow          {@code authorization_code} (login, authorize, consent, token, userinfo, introspect)
+ *                      or {@code client_credentials} (token requests of random clients only)
+ * @param poolSize      maximum JDBC pool size of the server
+ * @param resultFile    JSON file the results are written to
+ * @param metricsFile   file the server's {@code /actuator/prometheus} scrape is written to after the run,
+ *                      empty for none
+ * @param serverProperties {@code --app.*}, {@code --spring.threads.*} and {@code --server.tomcat.*} options,
+ *                      passed through to the server unchanged
+ *                      (e.g. {@code --app.token.persistence=refresh_token_only})
+ */
+public record LoadHarnessOptions(int users,
+                                 int clients,
+                                 double consentRatio,
+                                 int batchSize,
+                                 int concurrency,
+                                 Duration warmup,
+                                 Duration duration,
+                                 boolean reuseSession,
+                                 String scope,
+                                 boolean pkce,
+                                 String flow,
+                                 int poolSize,
+                                 String resultFile,
+                                 String metricsFile,
+                                 Map<String, String> serverProperties) {
+
+    static final String AUTHORIZATION_CODE_FLOW = "authorization_code";
+    static final String CLIENT_CREDENTIALS_FLOW = "client_credentials";
+    private static final List<String> FLOWS = List.of(AUTHORIZATION_CODE_FLOW, CLIENT_CREDENTIALS_FLOW);
+
+    private static final List<String> SERVER_PROPERTY_PREFIXES = List.of("app.", "spring.threads.", "server.tomcat.");
+
+    /**
+     * Parses {@code --name=value} arguments, falling back to defaults for anything omitted.
+     *
+     * @param args the program arguments
+     * @return the parsed options
+     * @throws IllegalArgumentException on an unknown or malformed argument
+     */
+    public static LoadHarnessOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadHarnessOptions options = new LoadHarnessOptions(
+                Integer.parseInt(take(values, "users", "10000")),
+                Integer.parseInt(take(values, "clients", "100")),
+                Double.parseDouble(take(values, "consent-ratio", "0.9")),
+                Integer.parseInt(take(values, "batch-size", "1000")),
+                Integer.parseInt(take(values, "concurrency", "16")),
+                Duration.ofSeconds(Long.parseLong(take(values, "warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(take(values, "duration", "60"))),
+                Boolean.parseBoolean(take(values, "reuse-session", "false")),
+                take(values, "scope", "openid email profile address phone"),
+                Boolean.parseBoolean(take(values, "pkce", "false")),
+                take(values, "flow", AUTHORIZATION_CODE_FLOW),
+                Integer.parseInt(take(values, "pool-size", "10")),
+                take(values, "result", "load-result.json"),
+                take(values, "metrics", ""),
+                takeServerProperties(values)
+        );
+
+        if (!FLOWS.contains(options.flow())) {
+            throw new IllegalArgumentException("Unknown flow: " + options.flow() + ", expected one of " + FLOWS);
+        }
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+
+    private static Map<String, String> takeServerProperties(Map<String, String> values) {
+        Map<String, String> serverProperties = new TreeMap<>();
+        values.keySet().removeIf(name -> {
+            if (SERVER_PROPERTY_PREFIXES.stream().anyMatch(name::startsWith)) {
+                serverProperties.put(name, values.get(name));
+                return true;
+            }
+            return false;
+        });
+        return serverProperties;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+}
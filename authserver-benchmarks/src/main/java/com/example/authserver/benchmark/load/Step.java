@@ -0,0 +1,9 @@
+package com.example.authserver.benchmark.load;
+
+/**
+ * The measured steps of one pass through the authorization code flow, and the single request
+ * of the client credentials flow.
+ */
+public enum Step {
+    LOGIN, AUTHORIZE, CONSENT, TOKEN, USERINFO, INTROSPECT, CLIENT_CREDENTIALS
+}
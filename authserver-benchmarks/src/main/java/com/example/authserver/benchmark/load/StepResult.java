@@ -0,0 +1,48 @@
+package com.example.authserver.benchmark.load;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregated latency and throughput of one {@link Step} over the measured window.
+ * Latencies are in microseconds.
+ */
+public record StepResult(Step step,
+                         long count,
+                         long errors,
+                         double requestsPerSecond,
+                         double p50,
+                         double p99,
+                         double p999,
+                         double max) {
+
+    static StepResult of(Step step, Collection<LatencyRecorder> recorders, long measuredNanos) {
+        long[] all = recorders.stream()
+                .map(recorder -> recorder.samples(step))
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .toArray();
+        long errors = recorders.stream().mapToLong(recorder -> recorder.errors(step)).sum();
+        double seconds = measuredNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+        return new StepResult(step,
+                all.length,
+                errors,
+                all.length / seconds,
+                percentile(all, 0.50),
+                percentile(all, 0.99),
+                percentile(all, 0.999),
+                all.length == 0 ? 0 : toMicros(all[all.length - 1]));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return toMicros(sorted[Math.max(index, 0)]);
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
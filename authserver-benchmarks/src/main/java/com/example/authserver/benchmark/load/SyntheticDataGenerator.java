@@ -0,0 +1,128 @@
+package com.example.authserver.benchmark.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Seeds users, clients and consents through batched JDBC inserts.
+ *
+ * <p>Row identifiers are derived from the row index so the load driver can address any
+ * seeded user or client without reading them back. Every user logs in with the same
+ * password and every client authenticates with the same secret; both are hashed once
+ * up front because hashing per row would dominate seeding time at millions of rows.</p>
+ */
+public class SyntheticDataGenerator {
+
+    public static final String USER_PASSWORD = "Load-test-1";
+    public static final String CLIENT_SECRET = "load-test-secret";
+    public static final String REDIRECT_URI = "http://localhost/callback";
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String ALL_SCOPES = "openid email profile address phone";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public static String userId(int index) {
+        return "load-user-" + index;
+    }
+
+    public static String username(int index) {
+        return "loaduser" + index;
+    }
+
+    public static String clientId(int index) {
+        return "load-client-" + index;
+    }
+
+    /**
+     * The client every user is paired with, so consents and authorization requests line up.
+     */
+    public static int clientIndexForUser(int userIndex, int clients) {
+        return userIndex % clients;
+    }
+
+    /**
+     * Whether the given user was seeded with a consent for its client.
+     */
+    public static boolean hasConsent(int userIndex, double consentRatio) {
+        return (userIndex % 1000) < consentRatio * 1000;
+    }
+
+    /**
+     * Inserts {@code users} users, {@code clients} confidential clients and consents for
+     * {@code consentRatio} of the users.
+     *
+     * @param users          number of users
+     * @param clients        number of clients
+     * @param consentRatio   fraction of users that already consented
+     * @param passwordHash   encoded {@link #USER_PASSWORD}
+     * @param secretHash     encoded {@link #CLIENT_SECRET}
+     */
+    public void seed(int users, int clients, double consentRatio, String passwordHash, String secretHash) {
+        long start = System.nanoTime();
+
+        insert("users", users,
+                "INSERT INTO users (id, username, password, email, enabled) VALUES (?, ?, ?, ?, ?)",
+                i -> new Object[]{userId(i), username(i), passwordHash, username(i) + "@example.com", true});
+
+        insert("client", clients,
+                "INSERT INTO client (id, client_id, client_id_issued_at, client_secret, client_name, is_public, " +
+                        "client_authentication_methods, authorization_grant_types, redirect_uris, scopes) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                i -> new Object[]{"load-client-row-" + i, clientId(i), Timestamp.valueOf(LocalDateTime.now()),
+                        secretHash, "Load client " + i, false, "client_secret_basic",
+                        "authorization_code client_credentials", REDIRECT_URI, ALL_SCOPES});
+
+        Timestamp grantedAt = Timestamp.valueOf(LocalDateTime.now());
+        insert("consents", users,
+                "INSERT INTO consents (id, user_id, client_id, scope, granted_at, active) VALUES (?, ?, ?, ?, ?, ?)",
+                i -> hasConsent(i, consentRatio)
+                        ? new Object[]{"load-consent-" + i, userId(i), clientId(clientIndexForUser(i, clients)),
+                                       ALL_SCOPES, grantedAt, true}
+                        : null);
+
+        logger.info("Seeded {} users and {} clients in {} ms", users, clients,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Inserts the rows produced by {@code row} for indexes {@code 0..count-1} in batches.
+     * A {@code null} row is skipped.
+     */
+    private void insert(String table, int count, String sql, IntFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long inserted = 0;
+        for (int i = 0; i < count; i++) {
+            Object[] values = row.apply(i);
+            if (values == null) continue;
+            batch.add(values);
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                inserted += batch.size();
+                batch.clear();
+                if (inserted % (batchSize * 100L) == 0) {
+                    logger.info("{}: {} rows", table, inserted);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            inserted += batch.size();
+        }
+        logger.info("{}: {} rows inserted", table, inserted);
+    }
+}
@@ -0,0 +1,168 @@
+-- H2 (MODE=MySQL) translation of authserver/src/main/resources/db/migration, applied in order.
+-- Keep the tables, keys and indexes in sync with the Flyway migrations so query plans
+-- at large table sizes stay representative.
+
+CREATE TABLE users (
+    id VARCHAR(100) PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    enabled BOOLEAN DEFAULT TRUE
+);
+
+CREATE TABLE authorities (
+    user_id VARCHAR(50) NOT NULL,
+    authority VARCHAR(50) NOT NULL,
+    CONSTRAINT fk_authorities_users FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE UNIQUE INDEX ix_auth_user_id ON authorities (user_id, authority);
+
+CREATE TABLE client (
+    id VARCHAR(100) PRIMARY KEY,
+    client_id VARCHAR(100) NOT NULL,
+    client_id_issued_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    client_secret VARCHAR(200),
+    client_secret_expires_at TIMESTAMP NULL,
+    client_name VARCHAR(200) NOT NULL,
+    client_authentication_methods VARCHAR(1000) NOT NULL,
+    authorization_grant_types VARCHAR(1000) NOT NULL,
+    redirect_uris VARCHAR(1000),
+    scopes VARCHAR(1000),
+    created_by VARCHAR(100),
+    is_public BOOLEAN NOT NULL DEFAULT TRUE,
+    UNIQUE (client_id),
+    CONSTRAINT fk_client_user FOREIGN KEY (created_by) REFERENCES users(id)
+);
+
+CREATE TABLE authorization_code (
+    code VARCHAR(255) PRIMARY KEY,
+    client_id VARCHAR(100) NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    redirect_uri VARCHAR(255),
+    scopes VARCHAR(255),
+    code_challenge VARCHAR(255),
+    code_challenge_method VARCHAR(15),
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_client_id FOREIGN KEY (client_id) REFERENCES client(id) ON DELETE CASCADE,
+    CONSTRAINT fk_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- V7 turns the primary key into a 255 character prefix of the token, which H2 cannot express;
+-- the full column is used instead.
+CREATE TABLE access_token (
+    token VARCHAR(2048) PRIMARY KEY,
+    refresh_token VARCHAR(255) UNIQUE NOT NULL,
+    client_id VARCHAR(100) NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    scopes VARCHAR(255),
+    expires_at DATETIME NOT NULL,
+    refresh_token_expires_at DATETIME NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_client_id_token FOREIGN KEY (client_id) REFERENCES client(id) ON DELETE CASCADE,
+    CONSTRAINT fk_user_id_token FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- V5 declares foreign keys to non-key columns (users.user_id, client.client_id);
+-- only the unique key that serves the consent lookup is kept.
+CREATE TABLE consents (
+    id VARCHAR(100) PRIMARY KEY,
+    user_id VARCHAR(100) NOT NULL,
+    client_id VARCHAR(100) NOT NULL,
+    scope VARCHAR(1000) NOT NULL,
+    granted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NULL,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    CONSTRAINT uniq_user_client UNIQUE (user_id, client_id)
+);
+
+CREATE TABLE user_profiles (
+    id VARCHAR(100) PRIMARY KEY,
+    user_id VARCHAR(100) NOT NULL UNIQUE,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    date_of_birth DATE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_profiles_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE user_addresses (
+    id VARCHAR(100) PRIMARY KEY,
+    user_id VARCHAR(100) NOT NULL,
+    street VARCHAR(255) NOT NULL,
+    city VARCHAR(100) NOT NULL,
+    state VARCHAR(100),
+    postal_code VARCHAR(20),
+    country VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_addresses_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE user_phones (
+    id VARCHAR(100) PRIMARY KEY,
+    user_id VARCHAR(100) NOT NULL,
+    number VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_phones_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE verification_tokens (
+    id VARCHAR(100) PRIMARY KEY,
+    user_id VARCHAR(100) NOT NULL,
+    token VARCHAR(255) UNIQUE NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    used BOOLEAN DEFAULT FALSE,
+    CONSTRAINT fk_verification_tokens_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE refresh_token (
+    id VARCHAR(36) PRIMARY KEY,
+    client_id VARCHAR(100) NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    scopes VARCHAR(255),
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_client_id_refresh_token FOREIGN KEY (client_id) REFERENCES client(id) ON DELETE CASCADE,
+    CONSTRAINT fk_user_id_refresh_token FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE mail_outbox (
+    id VARCHAR(36) PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL,
+    claim VARCHAR(36),
+    last_error VARCHAR(500),
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_mail_outbox_due ON mail_outbox (status, next_attempt_at);
+CREATE INDEX idx_mail_outbox_claim ON mail_outbox (claim);
+
+CREATE INDEX idx_authorization_code_expires_at ON authorization_code (expires_at);
+CREATE INDEX idx_access_token_refresh_token_expires_at ON access_token (refresh_token_expires_at);
+CREATE INDEX idx_refresh_token_expires_at ON refresh_token (expires_at);
+CREATE INDEX idx_verification_tokens_expires_at ON verification_tokens (expires_at);
+
+-- V15 partitions access_token and authorization_code by day, which H2 cannot express;
+-- only the index serving the per user and client delete is kept.
+CREATE INDEX idx_access_token_user_client ON access_token (user_id, client_id);
+
+CREATE TABLE token_revocation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(36),
+    user_id VARCHAR(100),
+    client_id VARCHAR(100) NOT NULL,
+    issued_before DATETIME,
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_token_revocation_expires_at ON token_revocation (expires_at);
+CREATE INDEX idx_token_revocation_created_at ON token_revocation (created_at);
@@ -0,0 +1,90 @@
+package com.example.authserver.cache;
+
+import com.example.authserver.entity.AccessToken;
+import com.example.authserver.registry.ClientChangedEvent;
+import com.example.authserver.scope.ScopeSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Access tokens issued through the {@code client_credentials} grant, keyed by client and scopes.
+ *
+ * <p>A token is handed out again for identical requests during {@code app.client-credentials.reuse-window}
+ * after it was signed, so a client that requests tokens in a loop costs one signature per window
+ * instead of one per request. The window must be shorter than the access token lifetime; a reused
+ * token is returned with its remaining lifetime. {@code app.client-credentials.reuse-window=0s}
+ * disables reuse.</p>
+ *
+ * <p>Tokens of a client are dropped when a {@link ClientChangedEvent} is published, so a changed
+ * registration is not served from tokens signed before the change.</p>
+ */
+@Component
+public class ClientCredentialsTokenCache {
+
+    private final ExpiringCache<Key, IssuedToken> cache;
+    private final Duration reuseWindow;
+
+    public ClientCredentialsTokenCache(@Value("${app.client-credentials.cache.maximum-size:10000}") int maximumSize,
+                                       @Value("${app.client-credentials.reuse-window:PT1M}") Duration reuseWindow,
+                                       MeterRegistry meterRegistry) {
+        if (reuseWindow.isNegative() || reuseWindow.compareTo(AccessToken.ACCESS_TOKEN_LIFETIME) >= 0) {
+            throw new IllegalArgumentException("app.client-credentials.reuse-window must be between 0 and "
+                    + AccessToken.ACCESS_TOKEN_LIFETIME);
+        }
+        this.cache = ExpiringCacheMetrics.monitor(meterRegistry,
+                new ExpiringCache<>(reuseWindow.isZero() ? 0 : maximumSize), "client-credentials-tokens");
+        this.reuseWindow = reuseWindow;
+    }
+
+    /**
+     * @param clientId the client id
+     * @param scopes   the granted scopes
+     * @return the token to reuse, or {@code null}
+     */
+    public IssuedToken get(String clientId, ScopeSet scopes) {
+        return cache.get(new Key(clientId, scopes));
+    }
+
+    /**
+     * Caches a freshly signed token for the reuse window.
+     *
+     * @param clientId the client id
+     * @param scopes   the granted scopes
+     * @param token    the token
+     */
+    public void put(String clientId, ScopeSet scopes, IssuedToken token) {
+        cache.put(new Key(clientId, scopes), token, Instant.now().plus(reuseWindow));
+    }
+
+    /**
+     * Drops all cached tokens of a client.
+     *
+     * @param clientId the client id
+     */
+    public void invalidate(String clientId) {
+        cache.invalidateIf(token -> token.clientId().equals(clientId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        invalidate(event.clientId());
+    }
+
+    /**
+     * A signed access token.
+     *
+     * @param clientId  the client the token was issued to
+     * @param token     the JWT
+     * @param expiresAt the expiry of the JWT
+     */
+    public record IssuedToken(String clientId, String token, Instant expiresAt) {
+    }
+
+    private record Key(String clientId, ScopeSet scopes) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.authserver.cache;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * A size-bounded, thread-safe cache whose entries expire at a per-entry instant.
+ *
+ * <p>Reads are a single {@link ConcurrentHashMap} lookup plus an expiry check; no locks are
+ * taken, so the cache is safe to use from many (including virtual) threads. Expired entries
+ * are dropped when they are read and when the cache is full. If the cache is still full after
+ * dropping expired entries, an arbitrary tenth of the entries is evicted; this is cheaper than
+ * tracking recency and good enough for entries that are re-created on a miss.</p>
+ *
+ * <p>A {@code maximumSize} of {@code 0} disables the cache: nothing is stored and every
+ * lookup is a miss.</p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ExpiringCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache using the system clock.
+     *
+     * @param maximumSize the maximum number of entries, {@code 0} to disable caching
+     */
+    public ExpiringCache(int maximumSize) {
+        this(maximumSize, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize the maximum number of entries, {@code 0} to disable caching
+     * @param clock       the clock used to decide whether entries have expired
+     */
+    public ExpiringCache(int maximumSize, Clock clock) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the value cached for the key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if there is no entry or it has expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(clock.millis())) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    /**
+     * Caches a value until the given instant.
+     *
+     * @param key       the key
+     * @param value     the value
+     * @param expiresAt when the entry expires; entries that are already expired are not stored
+     */
+    public void put(K key, V value, Instant expiresAt) {
+        long now = clock.millis();
+        long expiresAtMillis = expiresAt.toEpochMilli();
+        if (maximumSize == 0 || expiresAtMillis <= now) {
+            return;
+        }
+        if (entries.size() >= maximumSize) {
+            makeRoom(now);
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    /**
+     * Removes the entry for the key.
+     *
+     * @param key the key
+     * @return the removed value, or {@code null} if there was none
+     */
+    public V invalidate(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry != null ? entry.value() : null;
+    }
+
+    /**
+     * Removes all entries whose value matches the predicate.
+     *
+     * @param predicate the predicate
+     */
+    public void invalidateIf(Predicate<? super V> predicate) {
+        entries.values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Removes all expired entries.
+     */
+    public void purgeExpired() {
+        long now = clock.millis();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    /**
+     * @return the current number of entries, including expired ones not yet purged
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of lookups that found a live entry
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that found no live entry
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of live entries evicted because the cache was full
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void makeRoom(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        int excess = entries.size() - maximumSize + Math.max(1, maximumSize / 10);
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.authserver.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes the statistics of an {@link ExpiringCache} as Micrometer's standard cache meters
+ * ({@code cache.size}, {@code cache.gets} by result, {@code cache.evictions}), tagged with the
+ * cache name.
+ */
+public class ExpiringCacheMetrics extends CacheMeterBinder<ExpiringCache<?, ?>> {
+
+    public ExpiringCacheMetrics(ExpiringCache<?, ?> cache, String cacheName) {
+        super(cache, cacheName, Tags.empty());
+    }
+
+    /**
+     * Registers the meters of a cache.
+     *
+     * @param registry  the registry
+     * @param cache     the cache
+     * @param cacheName the value of the {@code cache} tag
+     * @return the cache
+     */
+    public static <C extends ExpiringCache<?, ?>> C monitor(MeterRegistry registry, C cache, String cacheName) {
+        new ExpiringCacheMetrics(cache, cacheName).bindTo(registry);
+        return cache;
+    }
+
+    @Override
+    protected Long size() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache != null ? (long) cache.size() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache != null ? cache.hitCount() : 0;
+    }
+
+    @Override
+    protected Long missCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache != null ? cache.missCount() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache != null ? cache.evictionCount() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        return 0;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.authserver.cache;
+
+/**
+ * Published when data exposed through {@code /userinfo} changes, so the {@link UserInfoCache}
+ * drops the user's entries once the surrounding transaction has committed.
+ *
+ * @param userId the user id
+ */
+public record UserChangedEvent(String userId) {
+}
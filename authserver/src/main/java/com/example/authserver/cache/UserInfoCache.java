@@ -0,0 +1,91 @@
+package com.example.authserver.cache;
+
+import com.example.authserver.dto.PublishedDocument;
+import com.example.authserver.scope.ScopeSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized {@code /userinfo} responses, keyed by user id and granted scopes.
+ *
+ * <p>Entries of a user are dropped when a {@link UserChangedEvent} is published, after the
+ * change has committed, and otherwise live for {@code app.userinfo.cache.ttl}, which bounds
+ * staleness for changes made on other nodes. {@code app.userinfo.cache.maximum-size=0}
+ * disables the cache.</p>
+ *
+ * <p>A response built from data read before an invalidation must not be cached after it.
+ * Callers therefore take a {@link #generation()} before reading and pass it to
+ * {@link #put}, which drops the entry if any invalidation happened in between.</p>
+ */
+@Component
+public class UserInfoCache {
+
+    private final ExpiringCache<Key, Entry> cache;
+    private final Duration ttl;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserInfoCache(@Value("${app.userinfo.cache.maximum-size:100000}") int maximumSize,
+                         @Value("${app.userinfo.cache.ttl:PT10M}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.cache = ExpiringCacheMetrics.monitor(meterRegistry, new ExpiringCache<>(maximumSize), "userinfo");
+        this.ttl = ttl;
+    }
+
+    /**
+     * @param userId the user id
+     * @param scopes the granted scopes
+     * @return the cached response, or {@code null}
+     */
+    public PublishedDocument get(String userId, ScopeSet scopes) {
+        Entry entry = cache.get(new Key(userId, scopes));
+        return entry != null ? entry.document() : null;
+    }
+
+    /**
+     * @return the current generation, to be passed to {@link #put}
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a response, unless an invalidation happened since {@code generation} was taken.
+     *
+     * @param userId     the user id
+     * @param scopes     the granted scopes
+     * @param document   the serialized response
+     * @param generation the generation taken before the response data was read
+     */
+    public void put(String userId, ScopeSet scopes, PublishedDocument document, long generation) {
+        if (generation == this.generation.get()) {
+            cache.put(new Key(userId, scopes), new Entry(userId, document), Instant.now().plus(ttl));
+        }
+    }
+
+    /**
+     * Drops all cached responses of a user.
+     *
+     * @param userId the user id
+     */
+    public void invalidate(String userId) {
+        generation.incrementAndGet();
+        cache.invalidateIf(entry -> entry.userId().equals(userId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    private record Key(String userId, ScopeSet scopes) {
+    }
+
+    private record Entry(String userId, PublishedDocument document) {
+    }
+}
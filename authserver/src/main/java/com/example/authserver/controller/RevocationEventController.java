@@ -0,0 +1,39 @@
+package com.example.authserver.controller;
+
+import com.example.authserver.revocation.RevocationEventStream;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * The RevocationEventController streams revoked access tokens and grants to resource servers
+ * that verify JWTs locally. Callers authenticate as a registered client with HTTP basic authentication
+ * and receive the revocations of that client, or of every client if it is a configured resource server.
+ *
+ * @see RevocationEventStream
+ */
+@RestController
+@RequestMapping("/api/oauth2")
+@AllArgsConstructor
+public class RevocationEventController {
+
+    private final RevocationEventStream revocationEventStream;
+
+    /**
+     * Opens a Server-Sent Events stream of revocations.
+     * Without {@code Last-Event-ID} the stream starts with every unexpired revocation, otherwise
+     * with those after the given sequence number.
+     *
+     * @param lastEventId the sequence number of the last event received.
+     * @param authentication the authenticated client.
+     * @return the event stream.
+     */
+    @GetMapping(value = "revocations", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter revocations(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                           Authentication authentication) {
+
+        return revocationEventStream.subscribe(authentication.getName(), lastEventId);
+    }
+}
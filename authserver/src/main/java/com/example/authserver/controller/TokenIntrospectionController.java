@@ -0,0 +1,63 @@
+package com.example.authserver.controller;
+
+import com.example.authserver.dto.TokenIntrospectionBatchRequestDTO;
+import com.example.authserver.dto.TokenIntrospectionBatchResponseDTO;
+import com.example.authserver.dto.TokenIntrospectionResponseDTO;
+import com.example.authserver.services.TokenIntrospectionService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * The TokenIntrospectionController handles the OAuth2 token introspection endpoint (RFC 7662).
+ * Callers authenticate as a registered client with HTTP basic authentication.
+ *
+ * @see TokenIntrospectionService
+ */
+@RestController
+@RequestMapping("/api/oauth2")
+@AllArgsConstructor
+public class TokenIntrospectionController {
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    /**
+     * Introspects a single token, as specified by RFC 7662.
+     * Receives a url-encoded body with the field {@code token}; {@code token_type_hint} is ignored.
+     *
+     * @param token the access token or refresh token.
+     * @return the introspection result.
+     */
+    @PostMapping(value = "introspect", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    ResponseEntity<TokenIntrospectionResponseDTO> introspect(@RequestParam(required = false) String token) {
+
+        TokenIntrospectionResponseDTO dto = tokenIntrospectionService.introspect(token);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dto);
+    }
+
+    /**
+     * Introspects many tokens in one request.
+     * Receives a JSON body {@code {"tokens": [...]}} and returns {@code {"results": [...]}}
+     * with one RFC 7662 result per token, in the same order.
+     *
+     * @param requestDTO the tokens to introspect.
+     * @return the introspection results.
+     */
+    @PostMapping(value = "introspect", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<TokenIntrospectionBatchResponseDTO> introspectBatch(@RequestBody TokenIntrospectionBatchRequestDTO requestDTO) {
+
+        TokenIntrospectionBatchResponseDTO dto =
+                new TokenIntrospectionBatchResponseDTO(tokenIntrospectionService.introspect(requestDTO.getTokens()));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dto);
+    }
+}
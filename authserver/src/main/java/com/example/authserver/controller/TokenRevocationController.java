@@ -0,0 +1,40 @@
+package com.example.authserver.controller;
+
+import com.example.authserver.services.TokenRevocationService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * The TokenRevocationController handles the OAuth2 token revocation endpoint (RFC 7009).
+ * Callers authenticate as a registered client with HTTP basic authentication.
+ *
+ * @see TokenRevocationService
+ */
+@RestController
+@RequestMapping("/api/oauth2")
+@AllArgsConstructor
+public class TokenRevocationController {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Revokes an access token or refresh token, as specified by RFC 7009.
+     * Receives a url-encoded body with the field {@code token}; {@code token_type_hint} is ignored,
+     * the type is told by the token format. Responds with 200 also for unknown or expired tokens.
+     *
+     * @param token the access token or refresh token.
+     * @return an empty response.
+     */
+    @PostMapping(value = "revoke", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    ResponseEntity<Void> revoke(@RequestParam(required = false) String token) {
+
+        tokenRevocationService.revoke(token);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+}
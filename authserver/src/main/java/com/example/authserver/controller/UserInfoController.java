@@ -1,8 +1,10 @@
 package com.example.authserver.controller;
 
-import com.example.authserver.dto.UserInfoResponseDTO;
+import com.example.authserver.dto.PublishedDocument;
 import com.example.authserver.services.UserInfoService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -13,12 +15,24 @@ public class UserInfoController {
 
     private final UserInfoService userInfoService;
 
+    /**
+     * Returns the claims of the token's user for its scopes. The response carries a strong
+     * ETag, so a client revalidating with {@code If-None-Match} gets a 304 while its copy is current.
+     */
     @GetMapping("/userinfo")
-    ResponseEntity<UserInfoResponseDTO> getUserInfo() {
+    ResponseEntity<byte[]> getUserInfo() {
 
-        UserInfoResponseDTO dto = userInfoService.getScopeBasedUserInfo();
+        PublishedDocument document = userInfoService.getUserInfoDocument();
 
-        return ResponseEntity.ok(dto);
+        if (document == null) {
+            return ResponseEntity.ok().build();
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(document.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(document.getBody());
     }
 
 }
@@ -0,0 +1,56 @@
+package com.example.authserver.controller;
+
+import com.example.authserver.dto.PublishedDocument;
+import com.example.authserver.services.WellKnownService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Publishes the OpenID Provider metadata and the JSON Web Key Set.
+ *
+ * <p>Responses carry a strong {@code ETag} and are cacheable for {@code app.well-known.max-age};
+ * conditional requests with a matching {@code If-None-Match} are answered with
+ * {@code 304 Not Modified}, so relying parties only download the documents again after a key
+ * rotation.</p>
+ *
+ * @see WellKnownService
+ */
+@RestController
+public class WellKnownController {
+
+    private final WellKnownService wellKnownService;
+    private final CacheControl cacheControl;
+
+    public WellKnownController(WellKnownService wellKnownService,
+                               @Value("${app.well-known.max-age:PT5M}") Duration maxAge) {
+        this.wellKnownService = wellKnownService;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping("/.well-known/openid-configuration")
+    ResponseEntity<byte[]> getOpenidConfiguration() {
+        return toResponse(wellKnownService.getOpenidConfiguration());
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    ResponseEntity<byte[]> getJwkSet() {
+        return toResponse(wellKnownService.getJwkSet());
+    }
+
+    /**
+     * Builds the response; the ETag is checked against {@code If-None-Match} by Spring MVC.
+     */
+    private ResponseEntity<byte[]> toResponse(PublishedDocument document) {
+        return ResponseEntity.ok()
+                .eTag(document.getEtag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(document.getBody());
+    }
+}
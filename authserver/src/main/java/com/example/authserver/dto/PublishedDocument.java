@@ -0,0 +1,25 @@
+package com.example.authserver.dto;
+
+import com.example.authserver.util.HashUtil;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pre-serialized JSON document with its strong entity tag.
+ */
+@Value
+public class PublishedDocument {
+    byte[] body;
+    String etag;
+
+    /**
+     * Wraps a serialized document, tagging it with the SHA-256 digest of its bytes.
+     *
+     * @param body the serialized document
+     * @return the document
+     */
+    public static PublishedDocument of(byte[] body) {
+        return new PublishedDocument(body, "\"" + HashUtil.generateSha256Base64Encoded(new String(body, StandardCharsets.UTF_8)) + "\"");
+    }
+}
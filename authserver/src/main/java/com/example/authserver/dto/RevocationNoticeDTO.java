@@ -0,0 +1,25 @@
+package com.example.authserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * This class represents one revocation on the revocation event stream.
+ * Either {@code jti} is set (a single revoked access token), or {@code issued_before} (every token
+ * of {@code sub} for {@code client_id} with an {@code iat} at or before it). Times are epoch seconds;
+ * the notice can be dropped after {@code exp}.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevocationNoticeDTO {
+
+    private long seq;
+    private String jti;
+    private String sub;
+    private String client_id;
+    private Long issued_before;
+    private long exp;
+}
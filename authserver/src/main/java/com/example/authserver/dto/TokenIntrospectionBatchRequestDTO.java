@@ -0,0 +1,13 @@
+package com.example.authserver.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A DTO for the batch token introspection request.
+ */
+@Data
+public class TokenIntrospectionBatchRequestDTO {
+    private List<String> tokens;
+}
@@ -0,0 +1,16 @@
+package com.example.authserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * This class represents the batch token introspection response.
+ * {@code results} are in the order of the requested tokens.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenIntrospectionBatchResponseDTO {
+    private List<TokenIntrospectionResponseDTO> results;
+}
@@ -0,0 +1,31 @@
+package com.example.authserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * This class represents a token introspection response (RFC 7662).
+ * Inactive tokens only carry {@code active=false}.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionResponseDTO {
+
+    private static final TokenIntrospectionResponseDTO INACTIVE = TokenIntrospectionResponseDTO.builder().active(false).build();
+
+    private boolean active;
+    private String scope;
+    private String client_id;
+    private String sub;
+    private String token_type;
+    private Long exp;
+    private Long iat;
+    private String jti;
+
+    public static TokenIntrospectionResponseDTO inactive() {
+        return INACTIVE;
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.authserver.entity;
 
 import jakarta.persistence.*;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 
 /**
  * AccessToken entity.
  * The AccessToken entity is used to store access tokens and their associated data.
+ * The table is partitioned by {@code created_at}; queries bound it by the token lifetime so
+ * that only the newest partitions are searched.
  *
  */
 @Entity
@@ -19,7 +23,10 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class AccessToken {
+public class AccessToken implements Persistable<String> {
+
+    public static final Duration ACCESS_TOKEN_LIFETIME = Duration.ofMinutes(5);
+    public static final Duration REFRESH_TOKEN_LIFETIME = Duration.ofMinutes(30);
 
     @Id
     @Column(name = "token", length = 255)
@@ -48,6 +55,15 @@ public class AccessToken {
     @Temporal(TemporalType.TIMESTAMP)
     private LocalDateTime createdAt;
 
+    /**
+     * The token is assigned by the application, so new tokens are flagged explicitly;
+     * otherwise {@code save} would issue a SELECT, probing every partition, before every INSERT.
+     */
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
 
     /**
      * Initializes the expiration times of the access token and refresh token
@@ -58,8 +74,24 @@ public class AccessToken {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
-        expiresAt = createdAt.plusMinutes(5);
-        refreshTokenExpiresAt = createdAt.plusMinutes(30);
+        expiresAt = createdAt.plus(ACCESS_TOKEN_LIFETIME);
+        refreshTokenExpiresAt = createdAt.plus(REFRESH_TOKEN_LIFETIME);
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return token;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
     }
 
     @Override
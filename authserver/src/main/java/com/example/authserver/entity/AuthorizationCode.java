@@ -1,12 +1,13 @@
 package com.example.authserver.entity;
 
+import com.example.authserver.scope.ScopeSet;
 import jakarta.persistence.*;
 import lombok.*;
-import org.springframework.util.StringUtils;
+import org.springframework.data.domain.Persistable;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.Set;
 
 
 /**
@@ -21,7 +22,9 @@ import java.util.Set;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class AuthorizationCode {
+public class AuthorizationCode implements Persistable<String> {
+
+    public static final Duration LIFETIME = Duration.ofMinutes(5);
 
     @Id
     @Column(length = 255)
@@ -52,6 +55,16 @@ public class AuthorizationCode {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * The code is assigned by the application, so new codes are flagged explicitly;
+     * otherwise {@code save} would issue a SELECT before every INSERT.
+     */
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
 
     /**
      * Initializes the creation and expiration time of the authorization code
@@ -62,16 +75,27 @@ public class AuthorizationCode {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
-        expiresAt = createdAt.plusMinutes(5);
+        expiresAt = createdAt.plus(LIFETIME);
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
     }
 
-    public Set<String> getScopesSet() {
-        return stringToSet(this.scopes);
+    @Override
+    public String getId() {
+        return code;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
     }
 
-    private Set<String> stringToSet(String delimitedString) {
-        String[] stringArray = StringUtils.delimitedListToStringArray(delimitedString," ");
-        return Set.of(stringArray);
+    public ScopeSet getScopeSet() {
+        return ScopeSet.parse(this.scopes);
     }
 
     @Override
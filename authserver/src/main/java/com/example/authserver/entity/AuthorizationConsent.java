@@ -1,12 +1,10 @@
 package com.example.authserver.entity;
 
+import com.example.authserver.scope.ScopeSet;
 import jakarta.persistence.*;
 import lombok.*;
-import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
-import java.util.Set;
 
 
 /**
@@ -57,24 +55,12 @@ public class AuthorizationConsent {
         }
     }
 
-    public Set<String> getScopesSet() {
-        return stringToSet(this.scope);
+    public ScopeSet getScopeSet() {
+        return ScopeSet.parse(this.scope);
     }
 
-    public void setScopesSet(Set<String> scopes) {
-        this.scope = collectionToString(scopes);
-        if (this.scope != null && this.scope.isEmpty()) {
-            this.scope = null;
-        }
-    }
-
-    private Set<String> stringToSet(String delimitedString) {
-        String[] stringArray = StringUtils.delimitedListToStringArray(delimitedString," ");
-        return Set.of(stringArray);
-    }
-
-    private String collectionToString(Collection<String> collection) {
-        return StringUtils.collectionToDelimitedString(collection," ");
+    public void setScopeSet(ScopeSet scopes) {
+        this.scope = scopes.isEmpty() ? null : scopes.toString();
     }
 
 }
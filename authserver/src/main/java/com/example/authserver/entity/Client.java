@@ -1,5 +1,6 @@
 package com.example.authserver.entity;
 
+import com.example.authserver.scope.ScopeSet;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -97,15 +98,12 @@ public class Client {
         }
     }
 
-    public Set<String> getScopesSet() {
-        return stringToSet(this.scopes);
+    public ScopeSet getScopeSet() {
+        return ScopeSet.parse(this.scopes);
     }
 
-    public void setScopesSet(Set<String> scopes) {
-        this.scopes = collectionToString(scopes);
-        if (this.scopes != null && this.scopes.isEmpty()) {
-            this.scopes = null;
-        }
+    public void setScopeSet(ScopeSet scopes) {
+        this.scopes = scopes.isEmpty() ? null : scopes.toString();
     }
 
     private Set<String> stringToSet(String delimitedString) {
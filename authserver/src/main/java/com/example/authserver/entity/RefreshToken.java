@@ -0,0 +1,93 @@
+package com.example.authserver.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+
+/**
+ * RefreshToken entity.
+ * Compact record of an issued refresh token, used when access tokens are not persisted
+ * (see {@link com.example.authserver.enums.TokenPersistence#REFRESH_TOKEN_ONLY}).
+ * The id is the opaque refresh token handed to the client.
+ *
+ */
+@Entity
+@Table(name = "refresh_token")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken implements Persistable<String> {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id", referencedColumnName = "id", nullable = false)
+    private Client client;
+
+    @Column(name = "user_id", length = 100, nullable = false)
+    private String userId;
+
+    @Column(name = "scopes", length = 255)
+    private String scopes;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * The id is assigned by the application, so new tokens are flagged explicitly;
+     * otherwise {@code save} would issue a SELECT before every INSERT.
+     */
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+
+    /**
+     * Initializes the expiration time of the refresh token before persisting it to database.
+     */
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        expiresAt = createdAt.plusMinutes(30);
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RefreshToken refreshToken = (RefreshToken) o;
+        return Objects.equals(id, refreshToken.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+}
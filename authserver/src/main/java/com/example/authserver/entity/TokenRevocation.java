@@ -0,0 +1,72 @@
+package com.example.authserver.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * TokenRevocation entity.
+ * Either a single revoked access token, identified by its {@code jti}, or a revoked grant: every
+ * token of {@code userId} for {@code clientId} issued at or before {@code issuedBefore}.
+ * Rows are kept until {@code expiresAt}, when the last affected token has expired; the
+ * auto-incremented id orders revocations.
+ *
+ * @see com.example.authserver.revocation.RevocationList
+ */
+@Entity
+@Table(name = "token_revocation")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "jti", length = 36)
+    private String jti;
+
+    @Column(name = "user_id", length = 100)
+    private String userId;
+
+    /**
+     * The {@code client_id} of the client (the {@code aud} of its tokens), not the row id.
+     */
+    @Column(name = "client_id", length = 100, nullable = false)
+    private String clientId;
+
+    @Column(name = "issued_before")
+    private LocalDateTime issuedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TokenRevocation revocation = (TokenRevocation) o;
+        return id != null && Objects.equals(id, revocation.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -2,7 +2,6 @@ package com.example.authserver.entity;
 
 import com.example.authserver.entity.user.Address;
 import com.example.authserver.entity.user.Phone;
-import com.example.authserver.entity.user.UserProfile;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -15,6 +14,11 @@ import java.util.*;
  * User entity.
  *
  * <p>Represents a user in the application.
+ *
+ * <p>Loading a user (login, bearer authentication, verification) reads the {@code users} row
+ * only: addresses and phones are lazy, and the profile is not mapped here at all, as the
+ * inverse side of a one-to-one cannot be lazy and would cost a query per load. Code that
+ * needs the sub-entities loads them through their repositories by user id.
  */
 @Entity
 @Table(name = "users")
@@ -41,13 +45,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private boolean enabled = false;
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-    private UserProfile profile;
-
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Address> addresses = new ArrayList<>();
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Phone> phones = new ArrayList<>();
 
     // UserDetails interface methods
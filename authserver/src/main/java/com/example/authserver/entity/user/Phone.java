@@ -19,7 +19,7 @@ public class Phone {
     @Column(length = 100)
     private String id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
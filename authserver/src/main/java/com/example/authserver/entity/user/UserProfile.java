@@ -20,7 +20,7 @@ public class UserProfile {
     @Column(length = 100)
     private String id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
@@ -0,0 +1,18 @@
+package com.example.authserver.enums;
+
+/**
+ * What {@code BearerTokenAuthenticationProvider} puts into the security context as the
+ * principal of a bearer-authenticated request ({@code app.security.bearer-principal}).
+ */
+public enum BearerPrincipalMode {
+
+    /** The {@code User} entity, loaded from the database on every request. */
+    USER,
+
+    /**
+     * A {@code TokenPrincipal} built from the verified token claims only. No database access
+     * happens during authentication; code that needs the {@code User} loads it itself. A deleted
+     * or disabled user keeps access until the token expires.
+     */
+    CLAIMS
+}
@@ -0,0 +1,13 @@
+package com.example.authserver.enums;
+
+/**
+ * State of a message in the mail outbox. Sent messages are deleted.
+ */
+public enum MailStatus {
+
+    /** Waiting to be sent, or to be retried after a failed attempt. */
+    PENDING,
+
+    /** Gave up after {@code app.mail.outbox.max-attempts} failed attempts; kept for inspection. */
+    FAILED
+}
@@ -1,5 +1,57 @@
 package com.example.authserver.enums;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The scopes known to the server. Each constant is interned once: its wire value, its
+ * {@code SCOPE_} authority and its bit in {@link com.example.authserver.scope.ScopeSet}.
+ */
 public enum OpenidScopes {
     OPENID,EMAIL,PROFILE,ADDRESS,PHONE;
-}
\ No newline at end of file
+
+    private static final Map<String, OpenidScopes> BY_VALUE = new HashMap<>();
+
+    static {
+        for (OpenidScopes scope : values()) {
+            BY_VALUE.put(scope.value, scope);
+        }
+    }
+
+    private final String value = name().toLowerCase();
+    private final GrantedAuthority authority = new SimpleGrantedAuthority("SCOPE_" + value);
+
+    /**
+     * @return the scope as it appears in requests and tokens, e.g. {@code openid}
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return the shared {@code SCOPE_<value>} authority
+     */
+    public GrantedAuthority getAuthority() {
+        return authority;
+    }
+
+    /**
+     * @return the bit of this scope in a scope bitmask
+     */
+    public long getBit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Looks up a known scope by its wire value.
+     *
+     * @param value the scope, e.g. {@code openid}
+     * @return the scope, or {@code null} if it is not a known scope
+     */
+    public static OpenidScopes fromValue(String value) {
+        return BY_VALUE.get(value);
+    }
+}
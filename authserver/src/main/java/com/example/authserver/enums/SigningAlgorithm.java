@@ -0,0 +1,81 @@
+package com.example.authserver.enums;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.authserver.security.jwt.EdDsaAlgorithm;
+import lombok.Getter;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.NamedParameterSpec;
+
+/**
+ * JWS algorithms supported for signing tokens.
+ *
+ * <ul>
+ *     <li>{@code RS256} - RSASSA-PKCS1-v1_5 with SHA-256, RSA keys.</li>
+ *     <li>{@code ES256} - ECDSA with SHA-256 on the P-256 curve.</li>
+ *     <li>{@code EdDSA} - Ed25519.</li>
+ * </ul>
+ */
+@Getter
+public enum SigningAlgorithm {
+    RS256("RS256", "RSA"),
+    ES256("ES256", "EC"),
+    EDDSA("EdDSA", "Ed25519");
+
+    /** Name of the algorithm as published in the JWS {@code alg} header. */
+    private final String jwsName;
+
+    /** JCA key algorithm of the keys used with this signing algorithm. */
+    private final String keyAlgorithm;
+
+    SigningAlgorithm(String jwsName, String keyAlgorithm) {
+        this.jwsName = jwsName;
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    /**
+     * Infers the signing algorithm from a public key.
+     *
+     * @param publicKey the public key
+     * @return the algorithm for that key type
+     * @throws IllegalArgumentException if the key is of an unsupported type or curve
+     */
+    public static SigningAlgorithm forKey(PublicKey publicKey) {
+        if (publicKey instanceof RSAPublicKey) {
+            return RS256;
+        }
+        if (publicKey instanceof ECPublicKey ecKey && ecKey.getParams().getCurve().getField().getFieldSize() == 256) {
+            return ES256;
+        }
+        if (publicKey instanceof EdECPublicKey edKey && NamedParameterSpec.ED25519.getName().equalsIgnoreCase(edKey.getParams().getName())) {
+            return EDDSA;
+        }
+        throw new IllegalArgumentException("Unsupported key type " + publicKey.getAlgorithm());
+    }
+
+    /**
+     * Creates the java-jwt {@link Algorithm} for the given keys.
+     *
+     * @param publicKey  the public key used to verify signatures
+     * @param privateKey the private key used to sign, or {@code null} for verify-only use
+     * @return the algorithm
+     * @throws IllegalArgumentException if the keys do not match this algorithm
+     */
+    public Algorithm toAlgorithm(PublicKey publicKey, PrivateKey privateKey) {
+        try {
+            return switch (this) {
+                case RS256 -> Algorithm.RSA256((RSAPublicKey) publicKey, (RSAPrivateKey) privateKey);
+                case ES256 -> Algorithm.ECDSA256((ECPublicKey) publicKey, (ECPrivateKey) privateKey);
+                case EDDSA -> new EdDsaAlgorithm(publicKey, privateKey);
+            };
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Keys are not " + keyAlgorithm + " keys, as required by " + jwsName, e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.authserver.enums;
+
+/**
+ * What is persisted when tokens are issued ({@code app.token.persistence}).
+ */
+public enum TokenPersistence {
+
+    /** A row in {@code access_token} holding the signed JWT and its refresh token. */
+    ACCESS_TOKEN,
+
+    /**
+     * Only a compact row in {@code refresh_token}. Access tokens are self-contained JWTs
+     * and are never stored.
+     */
+    REFRESH_TOKEN_ONLY
+}
@@ -0,0 +1,34 @@
+package com.example.authserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight Recorder event of a bearer token authentication: token verification (or verified token
+ * cache hit) and, in {@code user} principal mode, loading the user.
+ */
+@Name("authserver.BearerVerification")
+@Label("Bearer Verification")
+@Description("Bearer token authentication of a request")
+@Category(AuthServerEvents.CATEGORY)
+@StackTrace(false)
+@Setter
+public class BearerVerificationEvent extends Event {
+
+    @Label("Principal Mode")
+    private String principalMode;
+
+    @Label("Client Id")
+    private String clientId;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Error")
+    private String error;
+}
@@ -0,0 +1,29 @@
+package com.example.authserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight Recorder event of redeeming an authorization code at the token endpoint.
+ */
+@Name("authserver.CodeConsumption")
+@Label("Authorization Code Consumption")
+@Description("Authorization code removed from the store for a token request")
+@Category(AuthServerEvents.CATEGORY)
+@StackTrace(false)
+@Setter
+public class CodeConsumptionEvent extends Event {
+
+    @Label("Loaded By PKCE")
+    @Description("Whether the code was already loaded by PKCE verification rather than read again for the grant")
+    private boolean loadedByPkce;
+
+    @Label("Consumed")
+    @Description("False if the code was unknown, expired or already used")
+    private boolean consumed;
+}
@@ -0,0 +1,28 @@
+package com.example.authserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight Recorder event of loading the consent of the authenticated user for a client.
+ */
+@Name("authserver.ConsentLookup")
+@Label("Consent Lookup")
+@Description("Consented scopes of the authenticated user for a client")
+@Category(AuthServerEvents.CATEGORY)
+@StackTrace(false)
+@Setter
+public class ConsentLookupEvent extends Event {
+
+    @Label("Client Id")
+    private String clientId;
+
+    @Label("Found")
+    @Description("Whether the user has a consent for the client")
+    private boolean found;
+}
@@ -0,0 +1,30 @@
+package com.example.authserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight Recorder event of a PKCE verification, including the lookup of the authorization code.
+ */
+@Name("authserver.PkceVerification")
+@Label("PKCE Verification")
+@Description("Code verifier checked against the challenge of the authorization code")
+@Category(AuthServerEvents.CATEGORY)
+@StackTrace(false)
+@Setter
+public class PkceVerificationEvent extends Event {
+
+    @Label("Challenge Method")
+    private String method;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Error")
+    private String error;
+}
@@ -0,0 +1,37 @@
+package com.example.authserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight Recorder event of a token endpoint request, from grant type parsing to the issued
+ * (or refused) tokens.
+ */
+@Name("authserver.TokenIssuance")
+@Label("Token Issuance")
+@Description("Token endpoint request")
+@Category(AuthServerEvents.CATEGORY)
+@StackTrace(false)
+@Setter
+public class TokenIssuanceEvent extends Event {
+
+    @Label("Grant Type")
+    private String grantType;
+
+    @Label("Client Id")
+    private String clientId;
+
+    @Label("Token Persistence")
+    private String tokenPersistence;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Error")
+    private String error;
+}
@@ -0,0 +1,196 @@
+package com.example.authserver.mail;
+
+import com.example.authserver.entity.MailOutboxMessage;
+import com.example.authserver.enums.MailStatus;
+import com.example.authserver.metrics.MetricTags;
+import com.example.authserver.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends the messages of the mail outbox.
+ *
+ * <p>Every {@code app.mail.outbox.poll-interval} the dispatcher claims up to
+ * {@code app.mail.outbox.batch-size} due messages and sends them over a single SMTP connection,
+ * which caps the send rate at one batch per interval however many messages are queued. Sent
+ * messages are deleted. A failed message is retried with exponential backoff starting at
+ * {@code app.mail.outbox.retry-backoff}, and marked {@link MailStatus#FAILED} after
+ * {@code app.mail.outbox.max-attempts} attempts.</p>
+ *
+ * <p>Messages are claimed with a conditional update, so several nodes can dispatch the same
+ * outbox without sending a message twice. A message claimed by a node that dies before
+ * finishing is sent again once its claim expires.</p>
+ *
+ * <p>Messages are counted in {@code authserver.mail.messages} by outcome ({@code sent},
+ * {@code retry}, {@code failed}); {@code authserver.mail.batches} times the SMTP send of a batch.</p>
+ */
+@Slf4j
+@Component
+public class MailOutboxDispatcher {
+
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+    private final Timer sentBatchTimer;
+    private final Timer failedBatchTimer;
+    private final MeterRegistry meterRegistry;
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository,
+                                JavaMailSender mailSender,
+                                @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+                                @Value("${app.mail.outbox.max-attempts:5}") int maxAttempts,
+                                @Value("${app.mail.outbox.retry-backoff:PT30S}") Duration retryBackoff,
+                                MeterRegistry meterRegistry) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.sentCounter = messageCounter(meterRegistry, "sent");
+        this.retryCounter = messageCounter(meterRegistry, "retry");
+        this.failedCounter = messageCounter(meterRegistry, "failed");
+        this.sentBatchTimer = batchTimer(meterRegistry, MetricTags.SUCCESS);
+        this.failedBatchTimer = batchTimer(meterRegistry, MetricTags.FAILURE);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Sends one batch of due messages.
+     *
+     * @return the number of messages sent
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval:PT2S}")
+    public int dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> due = mailOutboxRepository.findDueIds(MailStatus.PENDING, now, Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        String claim = UUID.randomUUID().toString();
+        if (mailOutboxRepository.claim(due, claim, now, now.plus(CLAIM_LEASE)) == 0) {
+            return 0;
+        }
+        List<MailOutboxMessage> messages = mailOutboxRepository.findAllByClaim(claim);
+
+        Map<MimeMessage, MailOutboxMessage> outgoing = new IdentityHashMap<>();
+        Map<MailOutboxMessage, Exception> failed = new IdentityHashMap<>();
+        for (MailOutboxMessage message : messages) {
+            try {
+                outgoing.put(toMimeMessage(message), message);
+            } catch (MessagingException e) {
+                failed.put(message, e);
+            }
+        }
+
+        if (!outgoing.isEmpty()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Timer timer = sentBatchTimer;
+            try {
+                mailSender.send(outgoing.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                timer = failedBatchTimer;
+                if (e.getFailedMessages().isEmpty()) {
+                    outgoing.values().forEach(message -> failed.put(message, e));
+                }
+                e.getFailedMessages().forEach((mimeMessage, cause) -> failed.put(outgoing.get(mimeMessage), cause));
+            } catch (MailException e) {
+                timer = failedBatchTimer;
+                outgoing.values().forEach(message -> failed.put(message, e));
+            } finally {
+                sample.stop(timer);
+            }
+        }
+
+        List<String> sent = new ArrayList<>();
+        for (MailOutboxMessage message : messages) {
+            if (!failed.containsKey(message)) {
+                sent.add(message.getId());
+            }
+        }
+        if (!sent.isEmpty()) {
+            mailOutboxRepository.deleteAllByIdInBatch(sent);
+            sentCounter.increment(sent.size());
+        }
+        if (!failed.isEmpty()) {
+            failed.forEach(this::recordFailure);
+            mailOutboxRepository.saveAll(failed.keySet());
+        }
+
+        log.debug("Mail outbox: {} sent, {} failed", sent.size(), failed.size());
+        return sent.size();
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), true);
+        return mimeMessage;
+    }
+
+    private void recordFailure(MailOutboxMessage message, Exception cause) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setClaim(null);
+        message.setLastError(abbreviate(String.valueOf(cause.getMessage())));
+        if (attempts >= maxAttempts) {
+            message.setStatus(MailStatus.FAILED);
+            failedCounter.increment();
+            log.error("Giving up on mail {} to {} after {} attempts: {}",
+                    message.getId(), message.getRecipient(), attempts, cause.getMessage());
+        } else {
+            message.setNextAttemptAt(LocalDateTime.now().plus(retryBackoff.multipliedBy(1L << (attempts - 1))));
+            retryCounter.increment();
+            log.warn("Mail {} failed (attempt {}), retrying at {}: {}",
+                    message.getId(), attempts, message.getNextAttemptAt(), cause.getMessage());
+        }
+    }
+
+    private static Timer batchTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("authserver.mail.batches")
+                .description("SMTP send of a batch of outbox messages")
+                .tag(MetricTags.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("authserver.mail.messages")
+                .description("Outbox messages by send outcome")
+                .tag(MetricTags.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.authserver.maintenance;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes rows that can no longer be used: expired authorization codes, access tokens whose
+ * refresh token has expired (including those retired by a refresh), expired refresh tokens,
+ * unused verification tokens and revocations of tokens that have expired since.
+ *
+ * <p>Rows are deleted in chunks of about {@code app.reaper.chunk-size}, oldest first. Each chunk
+ * is bounded by a keyset over the expiry column, found with an index-only scan, and deleted in its
+ * own short transaction, followed by a pause of {@code app.reaper.chunk-pause}. Every statement runs
+ * with a timeout of {@code app.reaper.statement-timeout}, so a chunk that has to wait for row locks
+ * held by request traffic is abandoned, and the table is picked up again on the next run.</p>
+ *
+ * <p>Rows sharing the boundary expiry time go into the same chunk, so a chunk may exceed the chunk
+ * size by the number of rows issued in the same second.</p>
+ *
+ * <p>The reaper runs every {@code app.reaper.interval} on its own thread rather than on the shared
+ * {@code @Scheduled} thread: a run pauses between chunks and may wait for statement timeouts, which
+ * would otherwise hold up the mail outbox, the client registry refresh and the revocation sync.</p>
+ */
+@Slf4j
+@Component
+public class ExpiredRowReaper {
+
+    private static final List<ReapedTable> TABLES = List.of(
+            new ReapedTable("authorization_code", "expires_at"),
+            new ReapedTable("access_token", "refresh_token_expires_at"),
+            new ReapedTable("refresh_token", "expires_at"),
+            new ReapedTable("verification_tokens", "expires_at"),
+            new ReapedTable("token_revocation", "expires_at"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Duration interval;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    public ExpiredRowReaper(DataSource dataSource,
+                            @Value("${app.reaper.interval:PT5M}") Duration interval,
+                            @Value("${app.reaper.chunk-size:500}") int chunkSize,
+                            @Value("${app.reaper.chunk-pause:PT0.1S}") Duration chunkPause,
+                            @Value("${app.reaper.statement-timeout:PT2S}") Duration statementTimeout) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, statementTimeout.toSeconds()));
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.interval = interval;
+        this.scheduler.setThreadNamePrefix("reaper-");
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::reap, Instant.now().plus(interval), interval);
+    }
+
+    /**
+     * Stops the reaper, interrupting a run between chunks.
+     */
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Deletes all rows that expired before now.
+     *
+     * @return the number of deleted rows per table
+     */
+    public Map<String, Integer> reap() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        Map<String, Integer> removed = new LinkedHashMap<>();
+        for (ReapedTable table : TABLES) {
+            removed.put(table.name(), reap(table, cutoff));
+        }
+
+        int total = removed.values().stream().mapToInt(Integer::intValue).sum();
+        log.info("Reaper removed {} expired rows in {} ms: {}",
+                total, Duration.ofNanos(System.nanoTime() - start).toMillis(), removed);
+        return removed;
+    }
+
+    private int reap(ReapedTable table, LocalDateTime cutoff) {
+        String boundaryQuery = "SELECT " + table.expiryColumn() + " FROM " + table.name()
+                + " WHERE " + table.expiryColumn() + " < ? ORDER BY " + table.expiryColumn() + " LIMIT 1 OFFSET ?";
+        String deleteChunk = "DELETE FROM " + table.name()
+                + " WHERE " + table.expiryColumn() + " < ? AND " + table.expiryColumn() + " <= ?";
+        String deleteRest = "DELETE FROM " + table.name() + " WHERE " + table.expiryColumn() + " < ?";
+
+        int removed = 0;
+        try {
+            while (true) {
+                List<LocalDateTime> boundary = jdbcTemplate.queryForList(boundaryQuery, LocalDateTime.class, cutoff, chunkSize - 1);
+                if (boundary.isEmpty()) {
+                    return removed + jdbcTemplate.update(deleteRest, cutoff);
+                }
+                removed += jdbcTemplate.update(deleteChunk, cutoff, boundary.get(0));
+                Thread.sleep(chunkPause.toMillis());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Reaping {} stopped after {} rows: {}", table.name(), removed, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return removed;
+    }
+
+    private record ReapedTable(String name, String expiryColumn) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.authserver.maintenance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the daily range partitions of {@code access_token} and {@code authorization_code}
+ * (see migration V15) on MySQL.
+ *
+ * <p>Every {@code app.partitioning.maintenance-interval} (and at startup) it splits partitions
+ * for today and the next {@code app.partitioning.days-ahead} days off the catch-all
+ * {@code p_future} partition, which is empty then and splits without copying rows, and drops the
+ * partitions whose rows were all issued more than {@code app.partitioning.retention-days} days
+ * ago. Retention must exceed the longest lifetime of a row, the refresh token lifetime.</p>
+ *
+ * <p>Tables that are not partitioned, and databases other than MySQL, are left alone.</p>
+ */
+@Slf4j
+@Component
+public class PartitionMaintainer {
+
+    private static final List<String> TABLES = List.of("access_token", "authorization_code");
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    /** {@code TO_DAYS('1970-01-01')}, MySQL's day number of the epoch. */
+    private static final long TO_DAYS_OF_EPOCH = 719528;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final int daysAhead;
+    private final int retentionDays;
+
+    private Boolean mySql;
+
+    public PartitionMaintainer(DataSource dataSource,
+                               @Value("${app.partitioning.days-ahead:7}") int daysAhead,
+                               @Value("${app.partitioning.retention-days:2}") int retentionDays) {
+        if (retentionDays < 1) {
+            throw new IllegalArgumentException("app.partitioning.retention-days must be at least 1");
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.daysAhead = daysAhead;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(fixedDelayString = "${app.partitioning.maintenance-interval:PT1H}")
+    public void maintain() {
+        if (!isMySql()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (String table : TABLES) {
+            try {
+                maintain(table, today);
+            } catch (DataAccessException e) {
+                log.warn("Partition maintenance of {} failed: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    private void maintain(String table, LocalDate today) {
+        List<Partition> partitions = jdbcTemplate.query(
+                "SELECT partition_name, partition_description FROM information_schema.partitions " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL " +
+                        "ORDER BY partition_ordinal_position",
+                (rs, rowNum) -> new Partition(rs.getString(1), rs.getString(2)),
+                table);
+        if (partitions.stream().noneMatch(partition -> FUTURE_PARTITION.equals(partition.name()))) {
+            return;
+        }
+
+        long highestBound = partitions.stream()
+                .filter(Partition::isBounded)
+                .mapToLong(Partition::bound)
+                .max()
+                .orElse(toDays(today));
+
+        List<String> added = new ArrayList<>();
+        for (LocalDate day = fromDays(highestBound); !day.isAfter(today.plusDays(daysAhead)); day = day.plusDays(1)) {
+            added.add("PARTITION " + day.format(PARTITION_NAME) + " VALUES LESS THAN (" + toDays(day.plusDays(1)) + ")");
+        }
+        if (!added.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                    + String.join(", ", added)
+                    + ", PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+        }
+
+        long retentionBound = toDays(today.minusDays(retentionDays));
+        List<String> expired = partitions.stream()
+                .filter(partition -> partition.isBounded() && partition.bound() <= retentionBound)
+                .map(Partition::name)
+                .toList();
+        if (!expired.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", expired));
+        }
+
+        if (!added.isEmpty() || !expired.isEmpty()) {
+            log.info("Partitions of {}: added {}, dropped {}", table, added.size(), expired);
+        }
+    }
+
+    private boolean isMySql() {
+        if (mySql == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+                mySql = "MySQL".equalsIgnoreCase(product);
+            } catch (MetaDataAccessException e) {
+                log.warn("Could not determine the database product, partitions are not maintained: {}", e.getMessage());
+                mySql = false;
+            }
+        }
+        return mySql;
+    }
+
+    private static long toDays(LocalDate date) {
+        return date.toEpochDay() + TO_DAYS_OF_EPOCH;
+    }
+
+    private static LocalDate fromDays(long days) {
+        return LocalDate.ofEpochDay(days - TO_DAYS_OF_EPOCH);
+    }
+
+    /**
+     * A partition and its exclusive upper bound, a {@code TO_DAYS} value or {@code MAXVALUE}.
+     */
+    private record Partition(String name, String description) {
+
+        boolean isBounded() {
+            return !"MAXVALUE".equalsIgnoreCase(description);
+        }
+
+        long bound() {
+            return Long.parseLong(description);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.authserver.metrics;
+
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.example.authserver.exception.InvalidRequestException;
+import com.example.authserver.exception.RestInvalidRequestException;
+import org.springframework.security.authentication.AccountExpiredException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tag names and values shared by the application's meters.
+ *
+ * <p>Error tags are derived from exceptions with bounded cardinality: OAuth error codes thrown by
+ * the services (e.g. {@code invalid_request}, {@code code_expired}) are used as is, any other
+ * message maps to {@code other}, and other exceptions map to a fixed name per type.</p>
+ */
+public final class MetricTags {
+
+    public static final String OUTCOME = "outcome";
+    public static final String ERROR = "error";
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    public static final String NONE = "none";
+
+    private static final Pattern ERROR_CODE = Pattern.compile("[a-z_]{1,40}");
+
+    private MetricTags() {
+    }
+
+    /**
+     * @param error the failure, or {@code null} on success
+     * @return the outcome tag value
+     */
+    public static String outcome(Throwable error) {
+        return error == null ? SUCCESS : FAILURE;
+    }
+
+    /**
+     * @param error the failure, or {@code null} on success
+     * @return the error tag value
+     */
+    public static String errorCode(Throwable error) {
+        if (error == null) {
+            return NONE;
+        }
+        if (error instanceof RestInvalidRequestException || error instanceof InvalidRequestException) {
+            String message = error.getMessage();
+            return message != null && ERROR_CODE.matcher(message).matches() ? message : "other";
+        }
+        if (error instanceof BadCredentialsException || error instanceof UsernameNotFoundException) {
+            return "bad_credentials";
+        }
+        if (error instanceof DisabledException) {
+            return "disabled";
+        }
+        if (error instanceof LockedException) {
+            return "locked";
+        }
+        if (error instanceof AccountExpiredException || error instanceof CredentialsExpiredException) {
+            return "expired";
+        }
+        if (error instanceof AuthenticationException) {
+            return "authentication_failed";
+        }
+        if (error instanceof TokenExpiredException) {
+            return "token_expired";
+        }
+        if (error instanceof SignatureVerificationException) {
+            return "invalid_signature";
+        }
+        if (error instanceof JWTDecodeException) {
+            return "malformed";
+        }
+        if (error instanceof JWTVerificationException) {
+            return "invalid_token";
+        }
+        return "server_error";
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.authserver.registry;
+
+/**
+ * Published when a client is created or modified, so the {@link ClientRegistry} picks up the
+ * change once the surrounding transaction has committed.
+ *
+ * @param clientId the client identifier ({@code client_id}, not the row id)
+ */
+public record ClientChangedEvent(String clientId) {
+}
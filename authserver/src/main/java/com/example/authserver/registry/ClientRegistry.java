@@ -0,0 +1,142 @@
+package com.example.authserver.registry;
+
+import com.example.authserver.cache.ExpiringCache;
+import com.example.authserver.cache.ExpiringCacheMetrics;
+import com.example.authserver.entity.Client;
+import com.example.authserver.repository.ClientRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory registry of {@link ClientSnapshot}s, answering client lookups without a database
+ * round-trip.
+ *
+ * <p>The registry is refreshed</p>
+ * <ul>
+ *     <li>for a single client when a {@link ClientChangedEvent} is published, after the
+ *         publishing transaction commits;</li>
+ *     <li>completely every {@code app.client-registry.refresh-interval} (default one minute), to pick
+ *         up changes made by other nodes or directly in the database. A full refresh builds a new
+ *         map and swaps it in, so readers never see a partially loaded registry.</li>
+ * </ul>
+ *
+ * <p>A full refresh and a single-client reload hold the same lock, so a change that commits while
+ * the full refresh reads the table is reloaded after the swap rather than into the replaced map.</p>
+ *
+ * <p>A client that is not (yet) in the registry is looked up in the database and added, so
+ * clients registered on another node are usable before the next full refresh. A client id that
+ * is not found is remembered for {@code app.client-registry.absent-ttl}, so unknown ids do not
+ * cost a query per request; a change event and a full refresh forget it.</p>
+ */
+@Slf4j
+@Component
+public class ClientRegistry {
+
+    private final ClientRepository clientRepository;
+
+    private volatile Map<String, ClientSnapshot> clients = new ConcurrentHashMap<>();
+    /** Serializes full refreshes and single-client reloads. */
+    private final Lock reloadLock = new ReentrantLock();
+    /** Client ids recently looked up and not found. */
+    private final ExpiringCache<String, Boolean> absentClients;
+    private final Duration absentTtl;
+
+    public ClientRegistry(ClientRepository clientRepository,
+                          @Value("${app.client-registry.absent-ttl:PT10S}") Duration absentTtl,
+                          @Value("${app.client-registry.absent-maximum-size:10000}") int absentMaximumSize,
+                          MeterRegistry meterRegistry) {
+        this.clientRepository = clientRepository;
+        this.absentTtl = absentTtl;
+        this.absentClients = ExpiringCacheMetrics.monitor(meterRegistry, new ExpiringCache<>(absentMaximumSize),
+                "absent-clients");
+        Gauge.builder("authserver.client.registry.size", this, registry -> registry.clients.size())
+                .description("Clients held by the in-memory client registry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up a client.
+     *
+     * @param clientId the client identifier
+     * @return the client snapshot, or empty if there is no such client
+     */
+    public Optional<ClientSnapshot> find(String clientId) {
+        if (clientId == null) {
+            return Optional.empty();
+        }
+        ClientSnapshot snapshot = clients.get(clientId);
+        if (snapshot != null) {
+            return Optional.of(snapshot);
+        }
+        if (absentClients.get(clientId) != null) {
+            return Optional.empty();
+        }
+        return load(clientId);
+    }
+
+    /**
+     * Reloads all clients from the database.
+     */
+    @Scheduled(fixedDelayString = "${app.client-registry.refresh-interval:PT1M}")
+    public void refresh() {
+        Map<String, ClientSnapshot> loaded = new ConcurrentHashMap<>();
+        reloadLock.lock();
+        try {
+            for (Client client : clientRepository.findAll()) {
+                loaded.put(client.getClientId(), ClientSnapshot.of(client));
+            }
+            clients = loaded;
+            absentClients.invalidateAll();
+        } finally {
+            reloadLock.unlock();
+        }
+        log.debug("Client registry refreshed, {} clients", loaded.size());
+    }
+
+    /**
+     * Reloads a single client after a change.
+     *
+     * @param event the change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        reloadLock.lock();
+        try {
+            absentClients.invalidate(event.clientId());
+            Optional<ClientSnapshot> snapshot = clientRepository.findClientByClientId(event.clientId()).map(ClientSnapshot::of);
+            if (snapshot.isPresent()) {
+                clients.put(event.clientId(), snapshot.get());
+            } else {
+                clients.remove(event.clientId());
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Loads a client missing from the registry. Does not replace an entry added in the meantime,
+     * which may be a newer snapshot put by {@link #onClientChanged}.
+     */
+    private Optional<ClientSnapshot> load(String clientId) {
+        Optional<ClientSnapshot> snapshot = clientRepository.findClientByClientId(clientId).map(ClientSnapshot::of);
+        if (snapshot.isEmpty()) {
+            absentClients.put(clientId, Boolean.TRUE, Instant.now().plus(absentTtl));
+            return snapshot;
+        }
+        return snapshot.map(s -> clients.merge(clientId, s, (current, loaded) -> current));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.authserver.registry;
+
+import com.example.authserver.entity.Client;
+import com.example.authserver.scope.ScopeSet;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, pre-parsed copy of a {@link Client} as served by the {@link ClientRegistry}.
+ *
+ * <p>The space-delimited columns are split once when the snapshot is built, so request
+ * handling only does set lookups; scopes are kept as a {@link ScopeSet} bitmask.</p>
+ */
+@Value
+public class ClientSnapshot {
+
+    String id;
+    String clientId;
+    String clientName;
+    String clientSecret;
+    LocalDateTime clientSecretExpiresAt;
+    LocalDateTime clientIdIssuedAt;
+    boolean isPublic;
+    String redirectUris;
+    String scopes;
+    String authorizationGrantTypes;
+    String clientAuthenticationMethods;
+    String createdBy;
+    Set<String> redirectUrisSet;
+    ScopeSet scopeSet;
+    Set<String> authorizationGrantTypesSet;
+    Set<String> clientAuthenticationMethodsSet;
+
+    /**
+     * Builds a snapshot of the given entity.
+     *
+     * @param client the client entity
+     * @return the snapshot
+     */
+    public static ClientSnapshot of(Client client) {
+        return new ClientSnapshot(
+                client.getId(),
+                client.getClientId(),
+                client.getClientName(),
+                client.getClientSecret(),
+                client.getClientSecretExpiresAt(),
+                client.getClientIdIssuedAt(),
+                client.isPublic(),
+                client.getRedirectUris(),
+                client.getScopes(),
+                client.getAuthorizationGrantTypes(),
+                client.getClientAuthenticationMethods(),
+                client.getCreatedBy(),
+                copyOf(client.getRedirectUrisSet()),
+                client.getScopeSet(),
+                copyOf(client.getAuthorizationGrantTypesSet()),
+                copyOf(client.getClientAuthenticationMethodsSet()));
+    }
+
+    /**
+     * Creates a new, detached {@link Client} entity with the state of this snapshot, e.g. to
+     * reference the client from an entity that is being persisted. Changes to the returned
+     * entity do not affect the snapshot.
+     *
+     * @return a detached client entity
+     */
+    public Client toClient() {
+        return Client.builder()
+                .id(id)
+                .clientId(clientId)
+                .clientName(clientName)
+                .clientSecret(clientSecret)
+                .clientSecretExpiresAt(clientSecretExpiresAt)
+                .clientIdIssuedAt(clientIdIssuedAt)
+                .isPublic(isPublic)
+                .redirectUris(redirectUris)
+                .scopes(scopes)
+                .authorizationGrantTypes(authorizationGrantTypes)
+                .clientAuthenticationMethods(clientAuthenticationMethods)
+                .createdBy(createdBy)
+                .build();
+    }
+
+    private static Set<String> copyOf(Set<String> values) {
+        return values.stream()
+                .filter(value -> !value.isBlank())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -2,12 +2,20 @@ package com.example.authserver.repository;
 
 import com.example.authserver.entity.AccessToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository for managing {@link AccessToken} entities.
  *
+ * <p>{@code access_token} is partitioned by {@code created_at}. Lookups take the earliest issuance
+ * time a usable row can have, so that only the partitions within the token lifetime are searched.</p>
+ *
  * @see AccessToken
  */
 public interface AccessTokenRepository extends JpaRepository<AccessToken,String> {
@@ -16,9 +24,58 @@ public interface AccessTokenRepository extends JpaRepository<AccessToken,String>
      * Finds an access token by its refresh token.
      *
      * @param refreshToken the refresh token value
+     * @param issuedAfter  the earliest issuance time to consider
      * @return an Optional containing the matching {@link AccessToken}, if found
      */
-    Optional<AccessToken> findByRefreshToken(String refreshToken);
+    @Query("SELECT t FROM AccessToken t WHERE t.refreshToken = :refreshToken AND t.createdAt >= :issuedAfter")
+    Optional<AccessToken> findByRefreshToken(String refreshToken, LocalDateTime issuedAfter);
+
+    /**
+     * Finds the access tokens with any of the given refresh tokens, with their client.
+     *
+     * @param refreshTokens the refresh token values
+     * @param issuedAfter   the earliest issuance time to consider
+     * @return the matching {@link AccessToken}s
+     */
+    @Query("SELECT t FROM AccessToken t JOIN FETCH t.client WHERE t.refreshToken IN :refreshTokens AND t.createdAt >= :issuedAfter")
+    List<AccessToken> findAllWithClientByRefreshTokenIn(Collection<String> refreshTokens, LocalDateTime issuedAfter);
+
+    /**
+     * Sets the refresh token expiry of a token, addressing its partition through the issuance time.
+     *
+     * @param token     the access token value
+     * @param createdAt the issuance time of the token
+     * @param expiresAt the new refresh token expiry
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE AccessToken t SET t.refreshTokenExpiresAt = :expiresAt WHERE t.token = :token AND t.createdAt = :createdAt")
+    int updateRefreshTokenExpiresAt(String token, LocalDateTime createdAt, LocalDateTime expiresAt);
+
+    /**
+     * Expires the refresh token of a token if it is still unexpired, addressing its partition
+     * through the issuance time. Of two concurrent calls for the same token at most one updates the row.
+     *
+     * @param token     the access token value
+     * @param createdAt the issuance time of the token
+     * @param now       the current time
+     * @param expiresAt the new refresh token expiry, before {@code now}
+     * @return the number of updated rows, {@code 0} if the refresh token was already used or has expired
+     */
+    @Modifying
+    @Query("UPDATE AccessToken t SET t.refreshTokenExpiresAt = :expiresAt " +
+           "WHERE t.token = :token AND t.createdAt = :createdAt AND t.refreshTokenExpiresAt > :now")
+    int expireRefreshToken(String token, LocalDateTime createdAt, LocalDateTime now, LocalDateTime expiresAt);
 
-    void deleteAllByUserIdAndClientId(String userId, String clientId);
+    /**
+     * Deletes the tokens of a user and client with a single statement. Older rows can no longer
+     * be refreshed and are left to partition retention.
+     *
+     * @param userId      the user id
+     * @param clientId    the client identifier
+     * @param issuedAfter the earliest issuance time to consider
+     */
+    @Modifying
+    @Query("DELETE FROM AccessToken t WHERE t.userId = :userId AND t.client.clientId = :clientId AND t.createdAt >= :issuedAfter")
+    void deleteAllByUserIdAndClientId(String userId, String clientId, LocalDateTime issuedAfter);
 }
@@ -2,11 +2,40 @@ package com.example.authserver.repository;
 
 import com.example.authserver.entity.AuthorizationCode;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 /**
  * Repository for managing {@link AuthorizationCode} entities.
  *
+ * <p>{@code authorization_code} is partitioned by {@code created_at}. Lookups take the earliest
+ * issuance time a usable code can have, so that only the newest partitions are searched.</p>
+ *
  * @see AuthorizationCode
  */
 public interface AuthorizationCodeRepository extends JpaRepository<AuthorizationCode,String> {
+
+    /**
+     * Finds a code.
+     *
+     * @param code        the code value
+     * @param issuedAfter the earliest issuance time to consider
+     * @return the code, if found
+     */
+    @Query("SELECT c FROM AuthorizationCode c WHERE c.code = :code AND c.createdAt >= :issuedAfter")
+    Optional<AuthorizationCode> findByCode(String code, LocalDateTime issuedAfter);
+
+    /**
+     * Deletes a code with a single statement, without loading it first.
+     *
+     * @param code        the code value
+     * @param issuedAfter the earliest issuance time to consider
+     * @return the number of deleted rows, {@code 0} if the code was already deleted
+     */
+    @Modifying
+    @Query("DELETE FROM AuthorizationCode c WHERE c.code = :code AND c.createdAt >= :issuedAfter")
+    int deleteByCode(String code, LocalDateTime issuedAfter);
 }
@@ -2,6 +2,8 @@ package com.example.authserver.repository;
 
 import com.example.authserver.entity.Client;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,4 +31,16 @@ public interface ClientRepository extends JpaRepository<Client,String> {
      */
     Optional<Client> findClientByClientId(String clientId);
 
+    /**
+     * Replaces the secret hash of a client, only if it still has the expected hash.
+     *
+     * @param clientId      the client identifier
+     * @param currentSecret the hash the client is expected to have
+     * @param newSecret     the new hash
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE Client c SET c.clientSecret = :newSecret WHERE c.clientId = :clientId AND c.clientSecret = :currentSecret")
+    int updateClientSecret(String clientId, String currentSecret, String newSecret);
+
 }
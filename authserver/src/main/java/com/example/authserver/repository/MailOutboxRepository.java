@@ -0,0 +1,56 @@
+package com.example.authserver.repository;
+
+import com.example.authserver.entity.MailOutboxMessage;
+import com.example.authserver.enums.MailStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for managing {@link MailOutboxMessage} entities.
+ *
+ * @see MailOutboxMessage
+ */
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, String> {
+
+    /**
+     * Finds the ids of messages that are due, oldest first.
+     *
+     * @param status the status, {@link MailStatus#PENDING}
+     * @param now    the current time
+     * @param limit  the maximum number of ids
+     * @return the ids of the due messages
+     */
+    @Query("SELECT m.id FROM MailOutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<String> findDueIds(MailStatus status, LocalDateTime now, Limit limit);
+
+    /**
+     * Claims those of the given messages that are still due, by tagging them with {@code claim}
+     * and moving their next attempt to {@code leaseUntil}. Messages claimed concurrently by another
+     * dispatcher are no longer due and are skipped; messages of a dispatcher that died become due
+     * again when the lease ends.
+     *
+     * @param ids        the ids of due messages
+     * @param claim      the claim token of the calling dispatcher
+     * @param now        the current time
+     * @param leaseUntil the end of the claim
+     * @return the number of claimed messages
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE MailOutboxMessage m SET m.claim = :claim, m.nextAttemptAt = :leaseUntil " +
+            "WHERE m.id IN :ids AND m.status = com.example.authserver.enums.MailStatus.PENDING AND m.nextAttemptAt <= :now")
+    int claim(Collection<String> ids, String claim, LocalDateTime now, LocalDateTime leaseUntil);
+
+    /**
+     * @param claim the claim token
+     * @return the messages claimed with the token
+     */
+    List<MailOutboxMessage> findAllByClaim(String claim);
+}
@@ -0,0 +1,46 @@
+package com.example.authserver.repository;
+
+import com.example.authserver.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for managing {@link RefreshToken} entities.
+ *
+ * @see RefreshToken
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken,String> {
+
+    /**
+     * Finds the refresh tokens with any of the given ids, with their client.
+     *
+     * @param ids the refresh token values
+     * @return the matching {@link RefreshToken}s
+     */
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.client WHERE t.id IN :ids")
+    List<RefreshToken> findAllWithClientByIdIn(Collection<String> ids);
+
+    /**
+     * Deletes the refresh tokens of a user and client with a single statement.
+     *
+     * @param userId   the user id
+     * @param clientId the client identifier
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId AND t.client.clientId = :clientId")
+    void deleteAllByUserIdAndClientId(String userId, String clientId);
+
+    /**
+     * Deletes a refresh token with a single statement, without loading it first.
+     *
+     * @param id the refresh token value
+     * @return the number of deleted rows, {@code 0} if the token was already redeemed or revoked
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.id = :id")
+    int deleteByTokenId(String id);
+}
@@ -0,0 +1,41 @@
+package com.example.authserver.repository;
+
+import com.example.authserver.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for managing {@link TokenRevocation} entities.
+ *
+ * @see TokenRevocation
+ */
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    /**
+     * @param now the current time
+     * @return all revocations that still affect unexpired tokens
+     */
+    List<TokenRevocation> findAllByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * @param createdAt the earliest creation time
+     * @param now       the current time
+     * @return the unexpired revocations created at or after {@code createdAt}
+     */
+    List<TokenRevocation> findAllByCreatedAtGreaterThanEqualAndExpiresAtAfter(LocalDateTime createdAt, LocalDateTime now);
+
+    /**
+     * Finds the unexpired revocations after a sequence number, plus recently created ones whose
+     * lower id committed late.
+     *
+     * @param afterId      the highest id already seen, {@code 0} for all
+     * @param createdSince revocations created at or after this time are returned regardless of their id
+     * @param now          the current time
+     * @return the revocations, ordered by id
+     */
+    @Query("SELECT r FROM TokenRevocation r WHERE r.expiresAt > :now AND (r.id > :afterId OR r.createdAt >= :createdSince) ORDER BY r.id")
+    List<TokenRevocation> findUnexpiredAfter(long afterId, LocalDateTime createdSince, LocalDateTime now);
+}
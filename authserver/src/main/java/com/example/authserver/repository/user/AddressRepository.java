@@ -2,6 +2,18 @@ package com.example.authserver.repository.user;
 
 import com.example.authserver.entity.user.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface AddressRepository extends JpaRepository<Address,String> {
+
+    /**
+     * Finds the addresses of a user, without loading the user.
+     *
+     * @param userId the user id
+     * @return the user's addresses
+     */
+    @Query("SELECT a FROM Address a WHERE a.user.user_id = :userId")
+    List<Address> findAllByUserId(String userId);
 }
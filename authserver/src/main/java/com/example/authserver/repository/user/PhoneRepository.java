@@ -2,6 +2,18 @@ package com.example.authserver.repository.user;
 
 import com.example.authserver.entity.user.Phone;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface PhoneRepository extends JpaRepository<Phone,String> {
+
+    /**
+     * Finds the phones of a user, without loading the user.
+     *
+     * @param userId the user id
+     * @return the user's phones
+     */
+    @Query("SELECT p FROM Phone p WHERE p.user.user_id = :userId")
+    List<Phone> findAllByUserId(String userId);
 }
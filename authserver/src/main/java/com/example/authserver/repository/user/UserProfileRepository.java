@@ -2,6 +2,18 @@ package com.example.authserver.repository.user;
 
 import com.example.authserver.entity.user.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
 
 public interface UserProfileRepository extends JpaRepository<UserProfile,String> {
+
+    /**
+     * Finds the profile of a user, without loading the user.
+     *
+     * @param userId the user id
+     * @return the user's profile, if any
+     */
+    @Query("SELECT p FROM UserProfile p WHERE p.user.user_id = :userId")
+    Optional<UserProfile> findByUserId(String userId);
 }
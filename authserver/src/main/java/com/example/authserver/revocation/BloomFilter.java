@@ -0,0 +1,80 @@
+package com.example.authserver.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over {@code int} hash codes, sized for a number of entries at a false positive
+ * rate of about 1%.
+ *
+ * <p>Lookups are lock-free and may run concurrently with {@link #add}; a lookup that races with
+ * an add of the same hash may miss it. Callers serialize adds.</p>
+ */
+final class BloomFilter {
+
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASHES = 7;
+
+    private final AtomicLongArray words;
+    private final int bits;
+    private final int capacity;
+    private volatile int size;
+
+    /**
+     * @param capacity the number of entries the filter is sized for
+     */
+    BloomFilter(int capacity) {
+        this.capacity = Math.max(capacity, 64);
+        this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE / 64, ((long) this.capacity * BITS_PER_ENTRY + 63) / 64));
+        this.bits = words.length() * 64;
+    }
+
+    void add(int hash) {
+        long mixed = mix(hash);
+        int h1 = (int) mixed;
+        int h2 = (int) (mixed >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+        }
+        size++;
+    }
+
+    boolean mightContain(int hash) {
+        long mixed = mix(hash);
+        int h1 = (int) mixed;
+        int h2 = (int) (mixed >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return whether more entries were added than the filter is sized for
+     */
+    boolean isOverloaded() {
+        return size > capacity;
+    }
+
+    /**
+     * Spreads a 32-bit hash code over 64 bits (MurmurHash3 finalizer), so both halves can be used
+     * for double hashing.
+     */
+    private static long mix(int hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.authserver.revocation;
+
+import com.example.authserver.dto.RevocationNoticeDTO;
+import com.example.authserver.entity.TokenRevocation;
+import com.example.authserver.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes revocations to subscribed resource servers as Server-Sent Events, so they can keep a
+ * local deny-list of the JWTs they verify themselves.
+ *
+ * <p>Each event ({@code event: revocation}) carries a JSON array of {@link RevocationNoticeDTO}s.
+ * Its id is the highest revocation id (sequence number) the subscriber has been sent; a reconnecting
+ * client passes it back in {@code Last-Event-ID} and first receives every unexpired revocation after
+ * it, a new client every unexpired revocation. Revocations whose id was allocated before a later one
+ * committed are caught by also rereading those created during the last minute; a stream sends each
+ * revocation once, but a reconnecting client may see one again.</p>
+ *
+ * <p>A client receives the revocations of its own tokens and grants only; the clients listed in
+ * {@code app.revocation.stream.resource-servers} receive those of every client.</p>
+ *
+ * <p>Local revocations are queued after their transaction commits ({@link TokenRevokedEvent}) and
+ * sent together every {@code app.revocation.stream.coalesce-window}, so a burst, such as a user
+ * revoking all consents, becomes a single event. Revocations made on other nodes are read from the
+ * {@code token_revocation} table every {@code app.revocation.sync-interval}. A stream is closed
+ * after {@code app.revocation.stream.timeout}; clients are expected to reconnect.</p>
+ *
+ * <p>Events are written by a pool of {@code app.revocation.stream.sender-threads}, one task per
+ * subscriber at a time, so a slow client holds up neither the scheduler nor other streams. Each
+ * subscriber queues at most {@code app.revocation.stream.max-queued-events}; a client that falls
+ * further behind is disconnected and catches up on reconnect.</p>
+ */
+@Slf4j
+@Component
+public class RevocationEventStream {
+
+    static final String EVENT_NAME = "revocation";
+
+    /** Revocations created this long before the last read are read again, covering late commits and clock skew. */
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+    private static final int CATCH_UP_BATCH_SIZE = 1000;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final Duration timeout;
+    private final Duration syncInterval;
+    private final int maxQueuedEvents;
+    private final Set<String> resourceServers;
+    private final ThreadPoolTaskExecutor sender = new ThreadPoolTaskExecutor();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Queue<TokenRevocation> pending = new ConcurrentLinkedQueue<>();
+    private LocalDateTime lastRead = LocalDateTime.now();
+
+    public RevocationEventStream(TokenRevocationRepository tokenRevocationRepository,
+                                 @Value("${app.revocation.stream.timeout:PT10M}") Duration timeout,
+                                 @Value("${app.revocation.sync-interval:PT10S}") Duration syncInterval,
+                                 @Value("${app.revocation.stream.sender-threads:4}") int senderThreads,
+                                 @Value("${app.revocation.stream.max-queued-events:100}") int maxQueuedEvents,
+                                 @Value("${app.revocation.stream.resource-servers:}") Set<String> resourceServers,
+                                 MeterRegistry meterRegistry) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.timeout = timeout;
+        this.syncInterval = syncInterval;
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.resourceServers = Set.copyOf(resourceServers);
+        this.sender.setCorePoolSize(senderThreads);
+        this.sender.setMaxPoolSize(senderThreads);
+        this.sender.setThreadNamePrefix("revocation-stream-");
+        this.sender.initialize();
+        Gauge.builder("authserver.revocation.stream.subscribers", subscribers, List::size)
+                .description("Open revocation event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream, starting with the unexpired revocations after {@code lastEventId}.
+     *
+     * @param clientId    the {@code client_id} of the subscribing client
+     * @param lastEventId the last sequence number the client received, {@code null} for all
+     * @return the emitter of the stream
+     */
+    public SseEmitter subscribe(String clientId, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()),
+                resourceServers.contains(clientId) ? null : clientId, lastEventId == null ? 0 : lastEventId);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(subscriber.emitter::complete);
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+
+        // registered first, so nothing committed during the catch-up query is missed; live batches
+        // are queued until the catch-up has been sent on the request thread
+        subscribers.add(subscriber);
+        subscriber.lock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<TokenRevocation> revocations = tokenRevocationRepository.findUnexpiredAfter(
+                    subscriber.lastId, lastEventId == null ? now : now.minus(OVERLAP), now);
+            if (!subscriber.open()) {
+                return subscriber.emitter;
+            }
+            for (int i = 0; i < revocations.size(); i += CATCH_UP_BATCH_SIZE) {
+                if (!subscriber.send(revocations.subList(i, Math.min(i + CATCH_UP_BATCH_SIZE, revocations.size())))) {
+                    return subscriber.emitter;
+                }
+            }
+        } finally {
+            subscriber.lock.unlock();
+        }
+        sender.execute(subscriber::drain);
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        if (!subscribers.isEmpty()) {
+            pending.add(event.revocation());
+        }
+    }
+
+    /**
+     * Queues the revocations committed since the last run as one event for every subscriber,
+     * together with revocations of other nodes when the sync interval has passed.
+     */
+    @Scheduled(fixedDelayString = "${app.revocation.stream.coalesce-window:PT1S}")
+    public void publish() {
+        LocalDateTime now = LocalDateTime.now();
+        if (subscribers.isEmpty()) {
+            pending.clear();
+            lastRead = now;
+            return;
+        }
+
+        List<TokenRevocation> batch = new ArrayList<>();
+        for (TokenRevocation revocation; (revocation = pending.poll()) != null; ) {
+            batch.add(revocation);
+        }
+        LocalDateTime forgetBefore = null;
+        if (!lastRead.plus(syncInterval).isAfter(now)) {
+            batch.addAll(tokenRevocationRepository.findUnexpiredAfter(Long.MAX_VALUE, lastRead.minus(OVERLAP), now));
+            forgetBefore = lastRead.minus(OVERLAP.multipliedBy(2));
+            lastRead = now;
+        }
+        if (batch.isEmpty() && forgetBefore == null) {
+            return;
+        }
+        batch.sort(Comparator.comparing(TokenRevocation::getId));
+
+        Batch queued = new Batch(batch, forgetBefore);
+        subscribers.forEach(subscriber -> subscriber.enqueue(queued));
+        if (!batch.isEmpty()) {
+            log.debug("Published {} revocations to {} subscribers", batch.size(), subscribers.size());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        sender.shutdown();
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.complete();
+            } catch (IllegalStateException e) {
+                // the web server has already stopped and recycled the response
+            }
+        }
+    }
+
+    private static RevocationNoticeDTO toNotice(TokenRevocation revocation) {
+        return RevocationNoticeDTO.builder()
+                .seq(revocation.getId())
+                .jti(revocation.getJti())
+                .sub(revocation.getUserId())
+                .client_id(revocation.getClientId())
+                .issued_before(revocation.getIssuedBefore() == null ? null : toEpochSecond(revocation.getIssuedBefore()))
+                .exp(toEpochSecond(revocation.getExpiresAt()))
+                .build();
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    /**
+     * Revocations to send, and the creation time before which sent ids may be forgotten, if due.
+     */
+    private record Batch(List<TokenRevocation> revocations, LocalDateTime forgetBefore) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        /** The client whose revocations are sent, {@code null} for all clients. */
+        private final String clientId;
+        private final Queue<Batch> queue = new ArrayBlockingQueue<>(maxQueuedEvents);
+        /** Set while a drain task is scheduled or running, and during the catch-up. */
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+        /** Guards the emitter, {@code lastId} and {@code recent}; not held while waiting for a drain. */
+        private final Lock lock = new ReentrantLock();
+        private long lastId;
+        /** Ids of recently sent revocations with their creation time, so rereads are not sent twice. */
+        private final Map<Long, LocalDateTime> recent = new HashMap<>();
+
+        private Subscriber(SseEmitter emitter, String clientId, long lastId) {
+            this.emitter = emitter;
+            this.clientId = clientId;
+            this.lastId = lastId;
+        }
+
+        /**
+         * Queues a batch and schedules a drain unless one is pending. A subscriber whose queue is
+         * full is disconnected.
+         */
+        private void enqueue(Batch batch) {
+            if (!queue.offer(batch)) {
+                log.info("Closing revocation stream with {} queued events", queue.size());
+                subscribers.remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        /**
+         * Sends the queued batches until the queue is empty, on a sender thread.
+         */
+        private void drain() {
+            lock.lock();
+            try {
+                while (true) {
+                    for (Batch batch; (batch = queue.poll()) != null; ) {
+                        if (!send(batch.revocations())) {
+                            return;
+                        }
+                        if (batch.forgetBefore() != null) {
+                            forget(batch.forgetBefore());
+                        }
+                    }
+                    draining.set(false);
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Sends a comment, so the response is committed even if there is nothing to catch up on.
+         *
+         * @return whether the stream is still open
+         */
+        private boolean open() {
+            try {
+                emitter.send(SseEmitter.event().comment(EVENT_NAME + "s"));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+
+        /**
+         * Sends the revocations for this subscriber that were not sent before as one event; the caller
+         * holds the lock. The event id never decreases, even when the batch only holds revocations that
+         * committed late.
+         *
+         * @return whether the stream is still open
+         */
+        private boolean send(List<TokenRevocation> batch) {
+            List<TokenRevocation> revocations = batch.stream()
+                    .filter(revocation -> clientId == null || clientId.equals(revocation.getClientId()))
+                    .filter(revocation -> recent.putIfAbsent(revocation.getId(), revocation.getCreatedAt()) == null)
+                    .toList();
+            if (revocations.isEmpty()) {
+                return true;
+            }
+            lastId = Math.max(lastId, revocations.get(revocations.size() - 1).getId());
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(Long.toString(lastId))
+                        .data(revocations.stream().map(RevocationEventStream::toNotice).toList(),
+                              MediaType.APPLICATION_JSON));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+
+        private void forget(LocalDateTime createdBefore) {
+            recent.values().removeIf(createdAt -> createdAt.isBefore(createdBefore));
+        }
+    }
+}
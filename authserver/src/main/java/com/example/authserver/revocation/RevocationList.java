@@ -0,0 +1,195 @@
+package com.example.authserver.revocation;
+
+import com.example.authserver.entity.TokenRevocation;
+import com.example.authserver.repository.TokenRevocationRepository;
+import com.example.authserver.security.authentication.VerifiedToken;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked access tokens and grants, consulted on every bearer verification
+ * and introspection.
+ *
+ * <p>Revoked tokens are kept by {@code jti}, revoked grants by user and client with the time
+ * before which their tokens were issued. A {@link BloomFilter} over both sits in front of the
+ * exact maps, so a token that was not revoked, the common case, costs a few bit tests and no
+ * map lookup; with nothing revoked the check is a single volatile read.</p>
+ *
+ * <p>The list is loaded from the {@code token_revocation} table before the application serves
+ * requests, updated after each local revocation commits ({@link TokenRevokedEvent}) and synced
+ * with revocations of other nodes every {@code app.revocation.sync-interval}. Entries are dropped
+ * once the tokens they affect have expired, and the filter is then rebuilt to match.</p>
+ */
+@Slf4j
+@Component
+public class RevocationList implements SmartInitializingSingleton {
+
+    /** Rows created this long before the last sync are read again, covering late commits and clock skew. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final int expectedEntries;
+
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<GrantKey, RevokedGrant> revokedGrants = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private LocalDateTime lastSync;
+
+    public RevocationList(TokenRevocationRepository tokenRevocationRepository,
+                          @Value("${app.revocation.expected-entries:10000}") int expectedEntries,
+                          MeterRegistry meterRegistry) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.expectedEntries = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries);
+        Gauge.builder("authserver.revocation.entries", this, list -> list.revokedTokens.size() + list.revokedGrants.size())
+                .description("Revoked tokens and grants held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads all unexpired revocations.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> revocations = tokenRevocationRepository.findAllByExpiresAtAfter(now);
+        synchronized (this) {
+            revocations.forEach(this::add);
+            lastSync = now;
+        }
+        log.info("Revocation list loaded, {} revocations", revocations.size());
+    }
+
+    /**
+     * Checks whether a verified access token was revoked, by {@code jti} or through its grant.
+     *
+     * @param token the verified token
+     * @return whether the token must be rejected
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        if (filter.isEmpty()) {
+            return false;
+        }
+        return isRevoked(token.getJwt().getId(), token.getPrincipal().getUserId(),
+                token.getPrincipal().getClientId(), token.getJwt().getIssuedAtAsInstant());
+    }
+
+    /**
+     * Checks whether an access token was revoked, by {@code jti} or through its grant.
+     *
+     * @param jti      the token id
+     * @param userId   the subject
+     * @param clientId the audience
+     * @param issuedAt the issue time, {@code null} if unknown
+     * @return whether the token must be rejected
+     */
+    public boolean isRevoked(String jti, String userId, String clientId, Instant issuedAt) {
+        BloomFilter current = filter;
+        if (current.isEmpty()) {
+            return false;
+        }
+        if (jti != null && current.mightContain(jti.hashCode()) && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        if (userId == null || clientId == null) {
+            return false;
+        }
+        GrantKey key = new GrantKey(userId, clientId);
+        if (!current.mightContain(key.hashCode())) {
+            return false;
+        }
+        RevokedGrant grant = revokedGrants.get(key);
+        return grant != null && (issuedAt == null || !issuedAt.isAfter(grant.issuedBefore()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        synchronized (this) {
+            add(event.revocation());
+        }
+    }
+
+    /**
+     * Picks up revocations made on other nodes, then drops expired entries and rebuilds the filter.
+     */
+    @Scheduled(fixedDelayString = "${app.revocation.sync-interval:PT10S}",
+               initialDelayString = "${app.revocation.sync-interval:PT10S}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since;
+        synchronized (this) {
+            since = lastSync.minus(SYNC_OVERLAP);
+        }
+        List<TokenRevocation> revocations =
+                tokenRevocationRepository.findAllByCreatedAtGreaterThanEqualAndExpiresAtAfter(since, now);
+
+        synchronized (this) {
+            revocations.forEach(this::add);
+            lastSync = now;
+
+            Instant cutoff = Instant.now();
+            int before = revokedTokens.size() + revokedGrants.size();
+            revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(cutoff));
+            revokedGrants.values().removeIf(grant -> !grant.expiresAt().isAfter(cutoff));
+            if (revokedTokens.size() + revokedGrants.size() < before) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    /**
+     * Adds a revocation; the caller holds the lock. Filter bits are set before the map entry is
+     * visible, so readers never find an entry the filter rejects.
+     */
+    private void add(TokenRevocation revocation) {
+        Instant expiresAt = toInstant(revocation.getExpiresAt());
+        if (revocation.getJti() != null) {
+            filter.add(revocation.getJti().hashCode());
+            revokedTokens.merge(revocation.getJti(), expiresAt, (a, b) -> a.isAfter(b) ? a : b);
+        } else if (revocation.getUserId() != null && revocation.getIssuedBefore() != null) {
+            GrantKey key = new GrantKey(revocation.getUserId(), revocation.getClientId());
+            filter.add(key.hashCode());
+            revokedGrants.merge(key, new RevokedGrant(toInstant(revocation.getIssuedBefore()), expiresAt),
+                    (a, b) -> a.issuedBefore().isAfter(b.issuedBefore()) ? a : b);
+        }
+        if (filter.isOverloaded()) {
+            rebuildFilter();
+        }
+    }
+
+    /**
+     * Builds a filter of the current entries and swaps it in; the caller holds the lock.
+     */
+    private void rebuildFilter() {
+        int size = revokedTokens.size() + revokedGrants.size();
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, size * 2));
+        revokedTokens.keySet().forEach(jti -> rebuilt.add(jti.hashCode()));
+        revokedGrants.keySet().forEach(key -> rebuilt.add(key.hashCode()));
+        filter = rebuilt;
+        log.debug("Revocation filter rebuilt for {} entries", size);
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private record GrantKey(String userId, String clientId) {
+    }
+
+    private record RevokedGrant(Instant issuedBefore, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.authserver.revocation;
+
+import com.example.authserver.entity.TokenRevocation;
+
+/**
+ * Published when a token or grant is revoked, so the {@link RevocationList} enforces the
+ * revocation once the surrounding transaction has committed.
+ *
+ * @param revocation the persisted revocation
+ */
+public record TokenRevokedEvent(TokenRevocation revocation) {
+}
@@ -0,0 +1,199 @@
+package com.example.authserver.scope;
+
+import com.example.authserver.enums.OpenidScopes;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable set of scopes.
+ *
+ * <p>Scopes known as {@link OpenidScopes} are held as bits of a {@code long}, so membership,
+ * subset, union and difference are bitwise operations and their authorities are the shared
+ * instances of {@link OpenidScopes#getAuthority()}. Any other (custom) scope falls back to a
+ * set of strings, which is empty, and never allocated, for the standard scopes.</p>
+ *
+ * <p>The string form is space-delimited, known scopes first in declaration order, as stored
+ * in the {@code scopes} columns and the {@code scopes} claim.</p>
+ */
+public final class ScopeSet {
+
+    public static final ScopeSet EMPTY = new ScopeSet(0L, Set.of());
+
+    private static final OpenidScopes[] KNOWN_SCOPES = OpenidScopes.values();
+
+    private final long bits;
+    private final Set<String> customScopes;
+
+    private ScopeSet(long bits, Set<String> customScopes) {
+        this.bits = bits;
+        this.customScopes = customScopes;
+    }
+
+    /**
+     * Parses a space-delimited list of scopes. Blank entries are ignored.
+     *
+     * @param delimitedScopes the scopes, may be {@code null}
+     * @return the scope set
+     */
+    public static ScopeSet parse(String delimitedScopes) {
+        if (delimitedScopes == null || delimitedScopes.isBlank()) {
+            return EMPTY;
+        }
+        long bits = 0L;
+        Set<String> customScopes = null;
+        int length = delimitedScopes.length();
+        int start = 0;
+        while (start < length) {
+            int end = delimitedScopes.indexOf(' ', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                String scope = delimitedScopes.substring(start, end);
+                OpenidScopes known = OpenidScopes.fromValue(scope);
+                if (known != null) {
+                    bits |= known.getBit();
+                } else {
+                    if (customScopes == null) {
+                        customScopes = new LinkedHashSet<>();
+                    }
+                    customScopes.add(scope);
+                }
+            }
+            start = end + 1;
+        }
+        return of(bits, customScopes);
+    }
+
+    /**
+     * Builds a scope set from individual scopes. Blank entries are ignored.
+     *
+     * @param scopes the scopes
+     * @return the scope set
+     */
+    public static ScopeSet of(Collection<String> scopes) {
+        if (scopes == null || scopes.isEmpty()) {
+            return EMPTY;
+        }
+        return parse(String.join(" ", scopes));
+    }
+
+    private static ScopeSet of(long bits, Set<String> customScopes) {
+        if (customScopes == null || customScopes.isEmpty()) {
+            return bits == 0L ? EMPTY : new ScopeSet(bits, Set.of());
+        }
+        return new ScopeSet(bits, Collections.unmodifiableSet(customScopes));
+    }
+
+    public boolean isEmpty() {
+        return bits == 0L && customScopes.isEmpty();
+    }
+
+    public boolean contains(OpenidScopes scope) {
+        return (bits & scope.getBit()) != 0L;
+    }
+
+    public boolean contains(String scope) {
+        OpenidScopes known = OpenidScopes.fromValue(scope);
+        return known != null ? contains(known) : customScopes.contains(scope);
+    }
+
+    /**
+     * @param other the scopes to check
+     * @return {@code true} if every scope of {@code other} is in this set
+     */
+    public boolean containsAll(ScopeSet other) {
+        return (other.bits & ~bits) == 0L && customScopes.containsAll(other.customScopes);
+    }
+
+    /**
+     * @param other the scopes to add
+     * @return the scopes in this set or in {@code other}
+     */
+    public ScopeSet union(ScopeSet other) {
+        if (containsAll(other)) {
+            return this;
+        }
+        if (other.containsAll(this)) {
+            return other;
+        }
+        Set<String> customScopes = new LinkedHashSet<>(this.customScopes);
+        customScopes.addAll(other.customScopes);
+        return of(bits | other.bits, customScopes);
+    }
+
+    /**
+     * @param other the scopes to remove
+     * @return the scopes in this set but not in {@code other}
+     */
+    public ScopeSet minus(ScopeSet other) {
+        long remainingBits = bits & ~other.bits;
+        Set<String> customScopes = this.customScopes;
+        if (!customScopes.isEmpty() && !other.customScopes.isEmpty()) {
+            Set<String> remainingScopes = new LinkedHashSet<>(customScopes);
+            if (remainingScopes.removeAll(other.customScopes)) {
+                customScopes = remainingScopes;
+            }
+        }
+        return remainingBits == bits && customScopes == this.customScopes ? this : of(remainingBits, customScopes);
+    }
+
+    /**
+     * @return the {@code SCOPE_} authorities of these scopes
+     */
+    public List<GrantedAuthority> toAuthorities() {
+        List<GrantedAuthority> authorities = new ArrayList<>(Long.bitCount(bits) + customScopes.size());
+        for (OpenidScopes scope : KNOWN_SCOPES) {
+            if (contains(scope)) {
+                authorities.add(scope.getAuthority());
+            }
+        }
+        for (String scope : customScopes) {
+            authorities.add(new SimpleGrantedAuthority("SCOPE_" + scope));
+        }
+        return Collections.unmodifiableList(authorities);
+    }
+
+    /**
+     * @return the scopes as a new, mutable set in the order of {@link #toString()}
+     */
+    public Set<String> toSet() {
+        Set<String> scopes = new LinkedHashSet<>();
+        for (OpenidScopes scope : KNOWN_SCOPES) {
+            if (contains(scope)) {
+                scopes.add(scope.getValue());
+            }
+        }
+        scopes.addAll(customScopes);
+        return scopes;
+    }
+
+    /**
+     * @return the scopes, space-delimited
+     */
+    @Override
+    public String toString() {
+        return String.join(" ", toSet());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ScopeSet scopeSet = (ScopeSet) o;
+        return bits == scopeSet.bits && customScopes.equals(scopeSet.customScopes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bits, customScopes);
+    }
+}
@@ -1,26 +1,42 @@
 package com.example.authserver.security.authentication;
 
-import com.auth0.jwt.exceptions.JWTVerificationException;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import com.example.authserver.entity.User;
+import com.example.authserver.enums.BearerPrincipalMode;
+import com.example.authserver.jfr.BearerVerificationEvent;
+import com.example.authserver.metrics.MetricTags;
 import com.example.authserver.repository.UserRepository;
-import com.example.authserver.services.JwtService;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import java.time.Instant;
-import java.util.Arrays;
-import java.util.List;
 
+/**
+ * Authenticates requests carrying a JWT bearer token.
+ *
+ * <p>Tokens are verified through {@link VerifiedTokenResolver}, which caches them until they
+ * expire, so a token that is presented repeatedly costs a hash and a map lookup instead
+ * of a signature verification.</p>
+ *
+ * <p>The principal is the {@link User} entity or, with {@code app.security.bearer-principal=claims},
+ * a {@link TokenPrincipal} built from the token claims so authentication needs no database access.</p>
+ *
+ * <p>Each authentication is recorded as a {@link BearerVerificationEvent}.</p>
+ */
 @Configuration
-@AllArgsConstructor
 public class BearerTokenAuthenticationProvider implements AuthenticationProvider {
 
-    private final JwtService jwtService;
+    private final VerifiedTokenResolver verifiedTokenResolver;
     private final UserRepository userRepository;
+    private final BearerPrincipalMode principalMode;
+
+    public BearerTokenAuthenticationProvider(VerifiedTokenResolver verifiedTokenResolver,
+                                             UserRepository userRepository,
+                                             @Value("${app.security.bearer-principal:user}") BearerPrincipalMode principalMode) {
+        this.verifiedTokenResolver = verifiedTokenResolver;
+        this.userRepository = userRepository;
+        this.principalMode = principalMode;
+    }
 
     @Override
     public Authentication authenticate(Authentication authentication) {
@@ -28,34 +44,36 @@ public class BearerTokenAuthenticationProvider implements AuthenticationProvider
             return null;
         }
 
+        BearerVerificationEvent event = new BearerVerificationEvent();
+        event.begin();
+        VerifiedToken verifiedToken = null;
+        RuntimeException error = null;
         try {
             String token = bearerToken.getToken();
-            DecodedJWT jwt = jwtService.verifyToken(token);
-
-            Instant expiresAt = jwt.getExpiresAtAsInstant();
+            verifiedToken = verifiedTokenResolver.resolve(token);
 
-            if(expiresAt == null || expiresAt.isBefore(Instant.now())) {
-                throw new BadCredentialsException("invalid_token");
+            if (principalMode == BearerPrincipalMode.CLAIMS) {
+                return BearerTokenAuthenticationToken.authenticated(verifiedToken.getPrincipal(), token,
+                        verifiedToken.getPrincipal().getScopes(), verifiedToken.getAuthorities());
             }
 
-            String userId = jwt.getSubject();
-            String scopes = jwt.getClaim("scopes").asString();
-
-            if(userId == null || scopes == null) {
-                throw new BadCredentialsException("invalid_token");
-            }
-
-            User user = userRepository.findById(userId)
+            User user = userRepository.findById(verifiedToken.getPrincipal().getUserId())
                     .orElseThrow(()->new BadCredentialsException("invalid_token"));
 
-            List<SimpleGrantedAuthority> authorities = Arrays.stream(scopes.split(" "))
-                    .map(scope -> new SimpleGrantedAuthority("SCOPE_"+scope))
-                    .toList();
-
-            return BearerTokenAuthenticationToken.authenticated(user, token, authorities);
-
-        } catch (JWTVerificationException e) {
-            throw new BadCredentialsException("invalid_token");
+            return BearerTokenAuthenticationToken.authenticated(user, token,
+                    verifiedToken.getPrincipal().getScopes(), verifiedToken.getAuthorities());
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setPrincipalMode(principalMode.name().toLowerCase());
+                event.setClientId(verifiedToken != null ? verifiedToken.getPrincipal().getClientId() : null);
+                event.setOutcome(MetricTags.outcome(error));
+                event.setError(MetricTags.errorCode(error));
+                event.commit();
+            }
         }
     }
 
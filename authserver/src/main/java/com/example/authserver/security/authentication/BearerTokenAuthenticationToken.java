@@ -1,5 +1,6 @@
 package com.example.authserver.security.authentication;
 
+import com.example.authserver.scope.ScopeSet;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 
@@ -9,20 +10,28 @@ public class BearerTokenAuthenticationToken extends AbstractAuthenticationToken
 
     private final String token;
     private final Object principal;
+    private final ScopeSet scopes;
 
     // Constructor for unauthenticated token (only raw token)
     public BearerTokenAuthenticationToken(String token) {
         super(null);
         this.token = token;
         this.principal = null;
+        this.scopes = null;
         setAuthenticated(false);
     }
 
     // Constructor for authenticated token (with principal + authorities)
     public BearerTokenAuthenticationToken(Object principal, String token, Collection<? extends GrantedAuthority> authorities) {
+        this(principal, token, null, authorities);
+    }
+
+    // Constructor for authenticated token (with principal + granted scopes + their authorities)
+    public BearerTokenAuthenticationToken(Object principal, String token, ScopeSet scopes, Collection<? extends GrantedAuthority> authorities) {
         super(authorities);
         this.token = token;
         this.principal = principal;
+        this.scopes = scopes;
         setAuthenticated(true);
     }
 
@@ -36,6 +45,17 @@ public class BearerTokenAuthenticationToken extends AbstractAuthenticationToken
         return principal;
     }
 
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return the scopes granted by the token, or {@code null} if not known
+     */
+    public ScopeSet getScopes() {
+        return scopes;
+    }
+
     public static BearerTokenAuthenticationToken unauthenticated(String token) {
         return new BearerTokenAuthenticationToken(token);
     }
@@ -43,4 +63,8 @@ public class BearerTokenAuthenticationToken extends AbstractAuthenticationToken
     public static BearerTokenAuthenticationToken authenticated(Object principal, String token, Collection<? extends GrantedAuthority> authorities) {
         return new BearerTokenAuthenticationToken(principal, token, authorities);
     }
+
+    public static BearerTokenAuthenticationToken authenticated(Object principal, String token, ScopeSet scopes, Collection<? extends GrantedAuthority> authorities) {
+        return new BearerTokenAuthenticationToken(principal, token, scopes, authorities);
+    }
 }
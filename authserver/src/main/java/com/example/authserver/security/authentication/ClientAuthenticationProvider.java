@@ -1,31 +1,34 @@
 package com.example.authserver.security.authentication;
 
-import com.example.authserver.entity.Client;
-import com.example.authserver.repository.ClientRepository;
+import com.example.authserver.registry.ClientRegistry;
+import com.example.authserver.registry.ClientSnapshot;
+import com.example.authserver.security.crypto.ClientSecretEncoder;
+import com.example.authserver.services.ClientRegistrationService;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 /**
  * Custom {@link AuthenticationProvider} for authenticating OAuth2 clients.
  *
- * @see ClientRepository
- * @see Client
+ * @see ClientRegistry
+ * @see ClientSnapshot
  */
 @Component
 @AllArgsConstructor
 public class ClientAuthenticationProvider implements AuthenticationProvider {
 
-    private final ClientRepository clientRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final ClientRegistry clientRegistry;
+    private final ClientSecretEncoder clientSecretEncoder;
+    private final ClientRegistrationService clientRegistrationService;
 
     /**
      * Authenticates a client using its client ID and secret.
+     * Secrets still stored in an outdated encoding (e.g. bcrypt) are re-hashed on the first successful match.
      *
      * @param authentication the authentication request containing client ID and secret
      * @return a successful {@link UsernamePasswordAuthenticationToken} if credentials are valid
@@ -36,10 +39,13 @@ public class ClientAuthenticationProvider implements AuthenticationProvider {
         String clientId = (String) authentication.getPrincipal();
         String clientSecret = (String) authentication.getCredentials();
 
-        Client client = clientRepository.findClientByClientId(clientId)
+        ClientSnapshot client = clientRegistry.find(clientId)
                 .orElseThrow(() -> new BadCredentialsException("Invalid client credentials"));
 
-        if (passwordEncoder.matches(clientSecret,client.getClientSecret())) {
+        if (clientSecretEncoder.matches(clientSecret,client.getClientSecret())) {
+            if (clientSecretEncoder.upgradeEncoding(client.getClientSecret())) {
+                clientRegistrationService.upgradeClientSecret(clientId, client.getClientSecret(), clientSecret);
+            }
             return new UsernamePasswordAuthenticationToken(clientId, null,null);
         }
 
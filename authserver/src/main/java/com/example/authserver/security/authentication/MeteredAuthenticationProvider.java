@@ -0,0 +1,58 @@
+package com.example.authserver.security.authentication;
+
+import com.example.authserver.metrics.MetricTags;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Records the attempts of an {@link AuthenticationProvider} in the
+ * {@code authserver.authentication} timer, tagged by provider, outcome and error.
+ * Attempts the provider declines (returns {@code null} for) are not recorded.
+ */
+public class MeteredAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> timers;
+    private final Timer successTimer;
+
+    public MeteredAuthenticationProvider(String name, AuthenticationProvider delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.timers = Timer.builder("authserver.authentication")
+                .description("Authentication attempts per provider")
+                .tag("provider", name)
+                .withRegistry(meterRegistry);
+        this.successTimer = timers.withTags(MetricTags.OUTCOME, MetricTags.SUCCESS, MetricTags.ERROR, MetricTags.NONE);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        RuntimeException error = null;
+        try {
+            Authentication result = delegate.authenticate(authentication);
+            if (result == null) {
+                sample = null;
+            }
+            return result;
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            if (sample != null) {
+                sample.stop(error == null ? successTimer : timers.withTags(
+                        MetricTags.OUTCOME, MetricTags.FAILURE, MetricTags.ERROR, MetricTags.errorCode(error)));
+            }
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.authserver.security.authentication;
 
 import com.example.authserver.entity.AuthorizationCode;
-import com.example.authserver.repository.AuthorizationCodeRepository;
+import com.example.authserver.jfr.PkceVerificationEvent;
+import com.example.authserver.metrics.MetricTags;
+import com.example.authserver.services.AuthorizationCodeStore;
 import com.example.authserver.util.HashUtil;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -16,7 +18,7 @@ import org.springframework.stereotype.Component;
  * Validates a {@link PkceAutheticationToken} by comparing the provided code verifier
  * against the stored code challenge for the associated {@link AuthorizationCode}.
  *
- * @see AuthorizationCodeRepository
+ * @see AuthorizationCodeStore
  * @see AuthorizationCode
  * @see PkceAutheticationToken
  */
@@ -24,13 +26,15 @@ import org.springframework.stereotype.Component;
 @AllArgsConstructor
 public class PkceAuthenticationProvider implements AuthenticationProvider {
 
-    private final AuthorizationCodeRepository authorizationCodeRepository;
+    private final AuthorizationCodeStore authorizationCodeStore;
 
     /**
      * Authenticates a PKCE request.
      *
-     * Retrieves the {@link AuthorizationCode} from the repository, generates a code challenge
-     * from the provided verifier (SHA256 or plain), and compares it with the stored challenge.
+     * Retrieves the {@link AuthorizationCode} from the store, generates a code challenge
+     * from the provided verifier ({@code S256} as in RFC 7636, the legacy {@code SHA256} with
+     * padded standard Base64, or {@code plain}), and compares it with the stored challenge.
+     * Each verification is recorded as a {@link PkceVerificationEvent}.
      *
      * @param authentication the PKCE authentication request
      * @return a valid {@link PkceAutheticationToken} if verification succeeds
@@ -39,26 +43,49 @@ public class PkceAuthenticationProvider implements AuthenticationProvider {
     @Override
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
 
+        PkceVerificationEvent event = new PkceVerificationEvent();
+        event.begin();
+
         PkceAutheticationToken token = (PkceAutheticationToken) authentication;
-        AuthorizationCode code = authorizationCodeRepository.findById(token.getAuthorizationCode())
+        AuthorizationCode code = authorizationCodeStore.find(token.getAuthorizationCode())
                 .orElse(null);
 
+        String method = null;
+        String error = "unknown_code";
         if (code != null && code.getCodeChallenge() != null) {
             String generatedChallenge = null;
-            String method = code.getCodeChallengeMethod();
-            if ("SHA256".equalsIgnoreCase(method)) {
+            method = code.getCodeChallengeMethod();
+            if ("S256".equals(method)) {
+                generatedChallenge = HashUtil.generateSha256Base64UrlEncoded(token.getCodeVerifier());
+
+            } else if ("SHA256".equalsIgnoreCase(method)) {
                 generatedChallenge = HashUtil.generateSha256Base64Encoded(token.getCodeVerifier());
 
             } else if ("plain".equalsIgnoreCase(method)) {
                 generatedChallenge = token.getCodeVerifier();
             }
             if (generatedChallenge != null && generatedChallenge.equals(code.getCodeChallenge())) {
-                return new PkceAutheticationToken(code.getClient().getClientId());
+                commit(event, method, null);
+                return new PkceAutheticationToken(code);
             }
+            error = generatedChallenge == null ? "unsupported_method" : "challenge_mismatch";
+        } else if (code != null) {
+            error = "no_challenge";
         }
+        commit(event, method, error);
         throw new BadCredentialsException("invalid_pkce_request.");
     }
 
+    private static void commit(PkceVerificationEvent event, String method, String error) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setMethod(method);
+            event.setOutcome(error == null ? MetricTags.SUCCESS : MetricTags.FAILURE);
+            event.setError(error == null ? MetricTags.NONE : error);
+            event.commit();
+        }
+    }
+
     /**
      * Checks if this provider supports PKCE authentication.
      *
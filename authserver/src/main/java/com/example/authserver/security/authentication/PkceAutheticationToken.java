@@ -1,12 +1,14 @@
 package com.example.authserver.security.authentication;
 
+import com.example.authserver.entity.AuthorizationCode;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 
 /**
  * Custom {@link AbstractAuthenticationToken} implementation for PKCE (Proof Key for Code Exchange) authentication.
  *
  * Represents both the unauthenticated request (containing an authorization code and code verifier)
- * and the authenticated state (containing the validated clientId).
+ * and the authenticated state (containing the validated clientId and the verified
+ * {@link AuthorizationCode}, so the token endpoint does not have to load the code again).
  *
  * Used by {@link PkceAuthenticationProvider}.
  */
@@ -15,6 +17,7 @@ public class PkceAutheticationToken extends AbstractAuthenticationToken {
     private String clientId;
     private String authorizationCode;
     private String codeVerifier;
+    private AuthorizationCode verifiedAuthorizationCode;
 
     /**
      * Private constructor for creating an unauthenticated token.
@@ -40,6 +43,17 @@ public class PkceAutheticationToken extends AbstractAuthenticationToken {
         this.clientId = clientId;
     }
 
+    /**
+     * Creates an authenticated token after successful PKCE verification of the given code.
+     *
+     * @param verifiedAuthorizationCode the authorization code whose challenge has been verified
+     */
+    public PkceAutheticationToken(AuthorizationCode verifiedAuthorizationCode) {
+        this(verifiedAuthorizationCode.getClient().getClientId());
+        this.authorizationCode = verifiedAuthorizationCode.getCode();
+        this.verifiedAuthorizationCode = verifiedAuthorizationCode;
+    }
+
     /**
      * Factory method for creating an unauthenticated PKCE token.
      *
@@ -68,4 +82,12 @@ public class PkceAutheticationToken extends AbstractAuthenticationToken {
         return codeVerifier;
     }
 
+    /**
+     * @return the authorization code verified by {@link PkceAuthenticationProvider},
+     *         or {@code null} for an unauthenticated token
+     */
+    public AuthorizationCode getVerifiedAuthorizationCode() {
+        return verifiedAuthorizationCode;
+    }
+
 }
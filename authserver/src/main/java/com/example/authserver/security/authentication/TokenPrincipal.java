@@ -0,0 +1,25 @@
+package com.example.authserver.security.authentication;
+
+import com.example.authserver.scope.ScopeSet;
+import lombok.Value;
+
+import java.security.Principal;
+
+/**
+ * Principal of a bearer-authenticated request built purely from the verified access token:
+ * the user id ({@code sub}), the client the token was issued to ({@code aud}) and the granted scopes.
+ *
+ * @see com.example.authserver.enums.BearerPrincipalMode#CLAIMS
+ */
+@Value
+public class TokenPrincipal implements Principal {
+
+    String userId;
+    String clientId;
+    ScopeSet scopes;
+
+    @Override
+    public String getName() {
+        return userId;
+    }
+}
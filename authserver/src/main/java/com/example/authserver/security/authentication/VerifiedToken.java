@@ -0,0 +1,22 @@
+package com.example.authserver.security.authentication;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The outcome of successfully verifying a bearer token: its decoded claims, the principal
+ * and the authorities derived from its scopes. Cached by {@link VerifiedTokenResolver}
+ * so repeated requests with the same token skip signature verification.
+ */
+@Value
+public class VerifiedToken {
+
+    DecodedJWT jwt;
+    TokenPrincipal principal;
+    Instant expiresAt;
+    List<GrantedAuthority> authorities;
+}
@@ -0,0 +1,90 @@
+package com.example.authserver.security.authentication;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.cache.ExpiringCache;
+import com.example.authserver.revocation.RevocationList;
+import com.example.authserver.scope.ScopeSet;
+import com.example.authserver.services.JwtService;
+import com.example.authserver.util.HashUtil;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Verifies JWT access tokens and caches the outcome.
+ *
+ * <p>Successfully verified tokens are cached, keyed by the SHA-256 hash of the token, until
+ * they expire, so a token that is presented repeatedly costs a hash and a map lookup instead
+ * of a signature verification. Tokens that fail verification are never cached.</p>
+ *
+ * <p>Shared by bearer authentication and token introspection, so a token verified by either
+ * is a cache hit for the other. Cached or not, a token is checked against the in-memory
+ * {@link RevocationList} on every call.</p>
+ */
+@Component
+public class VerifiedTokenResolver {
+
+    private final JwtService jwtService;
+    private final ExpiringCache<String, VerifiedToken> verifiedTokenCache;
+    private final RevocationList revocationList;
+
+    public VerifiedTokenResolver(JwtService jwtService, ExpiringCache<String, VerifiedToken> verifiedTokenCache,
+                                 RevocationList revocationList) {
+        this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationList = revocationList;
+    }
+
+    /**
+     * Returns the verified form of an access token.
+     *
+     * @param token the JWT
+     * @return the verified token
+     * @throws BadCredentialsException if the token is invalid, expired, revoked or lacks the required claims
+     */
+    public VerifiedToken resolve(String token) {
+        String cacheKey = HashUtil.generateSha256Base64Encoded(token);
+
+        VerifiedToken verifiedToken = verifiedTokenCache.get(cacheKey);
+        if (verifiedToken == null) {
+            verifiedToken = verify(token);
+            verifiedTokenCache.put(cacheKey, verifiedToken, verifiedToken.getExpiresAt());
+        }
+        if (revocationList.isRevoked(verifiedToken)) {
+            throw new BadCredentialsException("invalid_token");
+        }
+        return verifiedToken;
+    }
+
+    private VerifiedToken verify(String token) {
+        try {
+            DecodedJWT jwt = jwtService.verifyToken(token);
+
+            Instant expiresAt = jwt.getExpiresAtAsInstant();
+
+            if(expiresAt == null || expiresAt.isBefore(Instant.now())) {
+                throw new BadCredentialsException("invalid_token");
+            }
+
+            String userId = jwt.getSubject();
+            String scopes = jwt.getClaim("scopes").asString();
+
+            if(userId == null || scopes == null) {
+                throw new BadCredentialsException("invalid_token");
+            }
+
+            ScopeSet scopeSet = ScopeSet.parse(scopes);
+            List<GrantedAuthority> authorities = scopeSet.toAuthorities();
+            String clientId = jwt.getAudience() != null && !jwt.getAudience().isEmpty() ? jwt.getAudience().get(0) : null;
+
+            return new VerifiedToken(jwt, new TokenPrincipal(userId, clientId, scopeSet), expiresAt, authorities);
+
+        } catch (JWTVerificationException e) {
+            throw new BadCredentialsException("invalid_token");
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.authserver.security.config;
 
 import com.example.authserver.security.authentication.BearerTokenAuthenticationProvider;
+import com.example.authserver.security.authentication.MeteredAuthenticationProvider;
 import com.example.authserver.security.authentication.PkceAuthenticationProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,18 +14,20 @@ import java.util.List;
 
 /**
  * Registers a custom {@link AuthenticationManager}
- * that delegates authentication to {@link PkceAuthenticationProvider}.
+ * that delegates authentication to {@link PkceAuthenticationProvider}
+ * and {@link BearerTokenAuthenticationProvider}, each wrapped in a {@link MeteredAuthenticationProvider}.
  */
 @Configuration
 public class AuthenticationManagerSecurityConfig {
 
     @Bean
     public AuthenticationManager authenticationManager(PkceAuthenticationProvider pkceAuthenticationProvider,
-                                                       BearerTokenAuthenticationProvider bearerTokenAuthenticationProvider) {
+                                                       BearerTokenAuthenticationProvider bearerTokenAuthenticationProvider,
+                                                       MeterRegistry meterRegistry) {
         return new ProviderManager(
                 List.of(
-                        pkceAuthenticationProvider,
-                        bearerTokenAuthenticationProvider
+                        new MeteredAuthenticationProvider("pkce", pkceAuthenticationProvider, meterRegistry),
+                        new MeteredAuthenticationProvider("bearer", bearerTokenAuthenticationProvider, meterRegistry)
                 )
         );
     }
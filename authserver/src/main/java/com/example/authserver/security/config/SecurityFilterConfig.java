@@ -2,15 +2,19 @@ package com.example.authserver.security.config;
 
 import com.example.authserver.security.authentication.BearerTokenAuthenticationProvider;
 import com.example.authserver.security.authentication.ClientAuthenticationProvider;
+import com.example.authserver.security.authentication.MeteredAuthenticationProvider;
 import com.example.authserver.security.authentication.PkceAuthenticationProvider;
 import com.example.authserver.security.filter.BearerTokenAuthenticationFilter;
 import com.example.authserver.security.filter.PkceAccessTokenRequestAuthenticationFilter;
 import com.example.authserver.security.handler.UserAuthFailureHandler;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -28,21 +32,30 @@ import org.springframework.security.web.util.matcher.RequestMatcher;
  *
  * <p>Defines two independent filter chains:</p>
  * <ul>
- *   <li><b>Client API security (Order 1)</b>: Secures <code>/api/**</code> endpoints using
+ *   <li><b>Client API security (Order 1)</b>: Secures <code>/api/oauth2/token</code>,
+ *       <code>/api/oauth2/introspect</code>, <code>/api/oauth2/revoke</code> and
+ *       <code>/api/oauth2/revocations</code> using
  *       {@link ClientAuthenticationProvider} and {@link PkceAuthenticationProvider}, plus
  *       {@link PkceAccessTokenRequestAuthenticationFilter} for PKCE validation.</li>
  *   <li><b>User web security (Order 2)</b>: Secures UI endpoints with
- *       {@link DaoAuthenticationProvider}, form login, and permits access to <code>/login</code>
- *       and <code>/register</code>.</li>
+ *       {@link DaoAuthenticationProvider}, form login, and permits access to <code>/login</code>,
+ *       <code>/register</code>, <code>/.well-known/**</code> and the health endpoint and probes. The Prometheus
+ *       endpoint is only open on the separate management port.</li>
  * </ul>
+ *
+ * <p>Every authentication provider is wrapped in a {@link MeteredAuthenticationProvider}.</p>
  */
 @Configuration
 @EnableWebSecurity
 @AllArgsConstructor
 public class SecurityFilterConfig {
 
-    private static final RequestMatcher ACCESS_TOKEN_REQUEST_MATCHER =
-            PathPatternRequestMatcher.withDefaults().matcher("/api/oauth2/token");
+    private static final RequestMatcher ACCESS_TOKEN_REQUEST_MATCHER = new OrRequestMatcher(
+            PathPatternRequestMatcher.withDefaults().matcher("/api/oauth2/token"),
+            PathPatternRequestMatcher.withDefaults().matcher("/api/oauth2/introspect"),
+            PathPatternRequestMatcher.withDefaults().matcher("/api/oauth2/revoke"),
+            PathPatternRequestMatcher.withDefaults().matcher("/api/oauth2/revocations")
+    );
 
     private static final RequestMatcher EXCEPT_ACCESS_TOKEN_REQUEST_MATCHER = new AndRequestMatcher(
             new OrRequestMatcher(PathPatternRequestMatcher.withDefaults().matcher("/api/**"),
@@ -63,8 +76,10 @@ public class SecurityFilterConfig {
     private final BearerTokenAuthenticationFilter bearerTokenAuthenticationFilter;
     private final BearerTokenAuthenticationProvider bearerTokenAuthenticationProvider;
     private final UserAuthFailureHandler userAuthFailureHandler;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
 
-    /** Security for access token endpoint (/api/oauth2/token) */
+    /** Security for client authenticated endpoints (/api/oauth2/token, /api/oauth2/introspect, /api/oauth2/revoke, /api/oauth2/revocations) */
     @Bean
     @Order(1)
     public SecurityFilterChain accessTokenRequestSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -73,8 +88,8 @@ public class SecurityFilterConfig {
                 .csrf(csrf -> csrf.disable())
                 .addFilterBefore(pkceAuthenticationFilter,
                         UsernamePasswordAuthenticationFilter.class)
-                .authenticationProvider(pkceAuthenticationProvider)
-                .authenticationProvider(clientAuthenticationProvider)
+                .authenticationProvider(metered("pkce", pkceAuthenticationProvider))
+                .authenticationProvider(metered("client", clientAuthenticationProvider))
                 .authorizeHttpRequests( authorize ->
                         authorize.anyRequest().authenticated())
                 .httpBasic(httpBasic -> httpBasic
@@ -92,7 +107,7 @@ public class SecurityFilterConfig {
                 .csrf(csrf -> csrf.disable())
                 .addFilterBefore(bearerTokenAuthenticationFilter,
                         UsernamePasswordAuthenticationFilter.class)
-                .authenticationProvider(bearerTokenAuthenticationProvider)
+                .authenticationProvider(metered("bearer", bearerTokenAuthenticationProvider))
                 .authorizeHttpRequests( authorize ->
                         authorize.anyRequest().authenticated())
                 .httpBasic(httpBasic -> httpBasic
@@ -108,9 +123,12 @@ public class SecurityFilterConfig {
 
         http
                 .securityMatcher(NON_REST_API_REQUEST_MATCHER)
-                .authenticationProvider(daoAuthenticationProvider)
+                .authenticationProvider(metered("login", daoAuthenticationProvider))
                 .authorizeHttpRequests(authorize -> authorize
-                        .requestMatchers("/login","/register","/verify-email","/verify").permitAll()
+                        .requestMatchers("/login","/register","/verify-email","/verify","/.well-known/**",
+                                "/actuator/health","/livez","/readyz").permitAll()
+                        .requestMatchers(new AndRequestMatcher(managementPort(),
+                                PathPatternRequestMatcher.withDefaults().matcher("/actuator/prometheus"))).permitAll()
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
@@ -122,4 +140,17 @@ public class SecurityFilterConfig {
         return http.build();
     }
 
+    /**
+     * Matches requests to the management server when it listens on a port of its own
+     * ({@code management.server.port}); that port is only known once the management server has started.
+     */
+    private RequestMatcher managementPort() {
+        return request -> Integer.valueOf(request.getLocalPort())
+                .equals(environment.getProperty("local.management.port", Integer.class));
+    }
+
+    private AuthenticationProvider metered(String name, AuthenticationProvider provider) {
+        return new MeteredAuthenticationProvider(name, provider, meterRegistry);
+    }
+
 }
@@ -0,0 +1,27 @@
+package com.example.authserver.security.config;
+
+import com.example.authserver.cache.ExpiringCache;
+import com.example.authserver.cache.ExpiringCacheMetrics;
+import com.example.authserver.security.authentication.VerifiedTokenResolver;
+import com.example.authserver.security.authentication.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the cache of verified bearer tokens used by {@link VerifiedTokenResolver}.
+ *
+ * <p>{@code app.security.token-cache.maximum-size} bounds the number of cached tokens
+ * ({@code 0} disables the cache).</p>
+ */
+@Configuration
+public class TokenCacheConfig {
+
+    @Bean
+    public ExpiringCache<String, VerifiedToken> verifiedTokenCache(
+            @Value("${app.security.token-cache.maximum-size:10000}") int maximumSize,
+            MeterRegistry meterRegistry) {
+        return ExpiringCacheMetrics.monitor(meterRegistry, new ExpiringCache<>(maximumSize), "verified-tokens");
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.authserver.security.jwt;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureGenerationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+
+/**
+ * {@link Algorithm} for the JWS {@code EdDSA} algorithm (RFC 8037) using Ed25519 keys.
+ *
+ * <p>java-jwt has no built-in EdDSA support, so signing and verification are delegated
+ * to the JDK's {@code Ed25519} {@link Signature} implementation.</p>
+ */
+public class EdDsaAlgorithm extends Algorithm {
+
+    private static final String SIGNATURE_ALGORITHM = "Ed25519";
+
+    private final PublicKey publicKey;
+    private final PrivateKey privateKey;
+
+    /**
+     * Creates the algorithm.
+     *
+     * @param publicKey  the Ed25519 public key used for verification
+     * @param privateKey the Ed25519 private key used for signing, or {@code null} for verify-only use
+     */
+    public EdDsaAlgorithm(PublicKey publicKey, PrivateKey privateKey) {
+        super("EdDSA", SIGNATURE_ALGORITHM);
+        if (publicKey == null && privateKey == null) {
+            throw new IllegalArgumentException("Both provided Keys cannot be null.");
+        }
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+    }
+
+    @Override
+    public void verify(DecodedJWT jwt) throws SignatureVerificationException {
+        try {
+            if (publicKey == null) {
+                throw new IllegalStateException("The given Public Key is null.");
+            }
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initVerify(publicKey);
+            signature.update(jwt.getHeader().getBytes(StandardCharsets.UTF_8));
+            signature.update((byte) '.');
+            signature.update(jwt.getPayload().getBytes(StandardCharsets.UTF_8));
+            byte[] signatureBytes = Base64.getUrlDecoder().decode(jwt.getSignature());
+            if (!signature.verify(signatureBytes)) {
+                throw new SignatureVerificationException(this);
+            }
+        } catch (GeneralSecurityException | IllegalStateException | IllegalArgumentException e) {
+            throw new SignatureVerificationException(this, e);
+        }
+    }
+
+    @Override
+    public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
+        try {
+            Signature signature = initSign();
+            signature.update(headerBytes);
+            signature.update((byte) '.');
+            signature.update(payloadBytes);
+            return signature.sign();
+        } catch (GeneralSecurityException | IllegalStateException e) {
+            throw new SignatureGenerationException(this, e);
+        }
+    }
+
+    @Override
+    @Deprecated
+    public byte[] sign(byte[] contentBytes) throws SignatureGenerationException {
+        try {
+            Signature signature = initSign();
+            signature.update(contentBytes);
+            return signature.sign();
+        } catch (GeneralSecurityException | IllegalStateException e) {
+            throw new SignatureGenerationException(this, e);
+        }
+    }
+
+    private Signature initSign() throws GeneralSecurityException {
+        if (privateKey == null) {
+            throw new IllegalStateException("The given Private Key is null.");
+        }
+        Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+        signature.initSign(privateKey);
+        return signature;
+    }
+}
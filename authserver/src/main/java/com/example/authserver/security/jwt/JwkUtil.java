@@ -0,0 +1,76 @@
+package com.example.authserver.security.jwt;
+
+import java.math.BigInteger;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converts verification keys to JSON Web Keys (RFC 7517, RFC 7518, RFC 8037).
+ */
+public final class JwkUtil {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    /** Length of an Ed25519 public key; its X.509 encoding ends with the raw key. */
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    private JwkUtil() {
+    }
+
+    /**
+     * Converts the public part of a key to a JWK.
+     *
+     * @param key the key
+     * @return the JWK members, in the conventional order
+     * @throws IllegalArgumentException if the key type is not supported
+     */
+    public static Map<String, Object> toJwk(SigningKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        PublicKey publicKey = key.getPublicKey();
+        if (publicKey instanceof RSAPublicKey rsaKey) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", encode(rsaKey.getModulus(), 0));
+            jwk.put("e", encode(rsaKey.getPublicExponent(), 0));
+        } else if (publicKey instanceof ECPublicKey ecKey) {
+            int length = (ecKey.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", encode(ecKey.getW().getAffineX(), length));
+            jwk.put("y", encode(ecKey.getW().getAffineY(), length));
+        } else if (publicKey instanceof EdECPublicKey) {
+            byte[] encoded = publicKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", BASE64_URL.encodeToString(Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length)));
+        } else {
+            throw new IllegalArgumentException("Unsupported key type " + publicKey.getAlgorithm());
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", key.getSigningAlgorithm().getJwsName());
+        jwk.put("kid", key.getKeyId());
+        return jwk;
+    }
+
+    /**
+     * Base64url encodes an unsigned big-endian integer, left padded with zeros to {@code length}
+     * bytes (or unpadded if {@code length} is 0).
+     */
+    private static String encode(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+}
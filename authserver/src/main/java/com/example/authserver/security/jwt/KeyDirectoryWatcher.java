@@ -0,0 +1,106 @@
+package com.example.authserver.security.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the {@link KeyRing} when the contents of {@code app.jwt.key-directory} change,
+ * so signing keys can be rotated without restarting the server.
+ *
+ * <p>Changes are debounced so that copying a key pair and updating {@code active-kid} results
+ * in a single reload. A directory that does not form a valid key ring (e.g. half-copied files)
+ * is logged and ignored; the previous ring stays in effect until the next change.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.jwt.key-directory")
+public class KeyDirectoryWatcher implements SmartLifecycle {
+
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final Path directory;
+    private final KeyRingHolder keyRingHolder;
+
+    private volatile WatchService watchService;
+    private volatile Thread thread;
+
+    public KeyDirectoryWatcher(@Value("${app.jwt.key-directory}") final String directory,
+                               final KeyRingHolder keyRingHolder) {
+        this.directory = Path.of(directory);
+        this.keyRingHolder = keyRingHolder;
+    }
+
+    @Override
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to watch key directory " + directory, e);
+        }
+        thread = new Thread(this::watch, "jwt-key-directory-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for JWT key changes", directory);
+    }
+
+    @Override
+    public void stop() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Failed to close key directory watch service", e);
+        }
+        thread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                key.reset();
+
+                // wait until the directory has been quiet for a while
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+
+    void reload() {
+        try {
+            keyRingHolder.rotate(KeyRingLoader.load(directory));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring invalid key directory {}, keeping the current key ring: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.authserver.security.jwt;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable set of JWT keys: exactly one active signing key plus any number of
+ * verification-only keys, looked up by {@code kid}.
+ *
+ * <p>A key ring is never modified. Rotation builds a new ring and swaps it in through
+ * {@link KeyRingHolder}, so readers always see a consistent snapshot without locking.</p>
+ */
+public final class KeyRing {
+
+    /** The key used to sign new tokens. */
+    @Getter
+    private final SigningKey activeKey;
+
+    private final Map<String, SigningKey> keys;
+
+    private KeyRing(SigningKey activeKey, Map<String, SigningKey> keys) {
+        this.activeKey = activeKey;
+        this.keys = keys;
+    }
+
+    /**
+     * Creates a key ring.
+     *
+     * @param activeKey        the key used to sign new tokens
+     * @param verificationKeys additional keys accepted for verification; a key with the same id
+     *                         as the active key is ignored
+     * @return the key ring
+     * @throws IllegalArgumentException if the active key cannot sign or key ids are duplicated
+     */
+    public static KeyRing of(SigningKey activeKey, Collection<SigningKey> verificationKeys) {
+        if (activeKey == null || !activeKey.isSigning()) {
+            throw new IllegalArgumentException("The active key must be a signing key");
+        }
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        keys.put(activeKey.getKeyId(), activeKey);
+        for (SigningKey key : verificationKeys) {
+            if (key.getKeyId().equals(activeKey.getKeyId())) {
+                continue;
+            }
+            if (keys.putIfAbsent(key.getKeyId(), key) != null) {
+                throw new IllegalArgumentException("Duplicate key id " + key.getKeyId());
+            }
+        }
+        return new KeyRing(activeKey, Collections.unmodifiableMap(keys));
+    }
+
+    /**
+     * Creates a key ring holding only the given signing key.
+     *
+     * @param activeKey the key used to sign and verify tokens
+     * @return the key ring
+     */
+    public static KeyRing of(SigningKey activeKey) {
+        return of(activeKey, List.of());
+    }
+
+    /**
+     * Looks up a key by id.
+     *
+     * @param keyId the {@code kid}
+     * @return the key, or {@code null} if the ring has no key with that id
+     */
+    public SigningKey findKey(String keyId) {
+        return keys.get(keyId);
+    }
+
+    /**
+     * @return all keys of the ring, including the active key
+     */
+    public Collection<SigningKey> getKeys() {
+        return keys.values();
+    }
+}
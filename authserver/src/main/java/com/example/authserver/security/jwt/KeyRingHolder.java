@@ -0,0 +1,76 @@
+package com.example.authserver.security.jwt;
+
+import com.example.authserver.enums.SigningAlgorithm;
+import com.example.authserver.util.PemUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link KeyRing}.
+ *
+ * <p>The ring is kept in an {@link AtomicReference}: signing and verifying threads read it
+ * with a single volatile load and never block, while {@link #rotate(KeyRing)} swaps in a
+ * complete new ring at once. Tokens already in flight keep verifying as long as their key
+ * is still part of the new ring.</p>
+ *
+ * <p>The initial ring is loaded from {@code app.jwt.key-directory} when set (see
+ * {@link KeyRingLoader}; {@link KeyDirectoryWatcher} then reloads it on change), otherwise
+ * from the single key pair at {@code app.jwt.public-key-location} /
+ * {@code app.jwt.private-key-location}.</p>
+ */
+@Slf4j
+@Component
+public class KeyRingHolder {
+
+    private final AtomicReference<KeyRing> keyRing;
+
+    /**
+     * Creates a holder with the given initial key ring.
+     *
+     * @param keyRing the initial key ring
+     */
+    public KeyRingHolder(KeyRing keyRing) {
+        this.keyRing = new AtomicReference<>(keyRing);
+    }
+
+    @Autowired
+    public KeyRingHolder(@Value("${app.jwt.key-directory:}") final String keyDirectory,
+                         @Value("${app.jwt.algorithm:RS256}") final SigningAlgorithm signingAlgorithm,
+                         @Value("${app.jwt.public-key-location:classpath:keystore/public.pem}") final Resource publicKey,
+                         @Value("${app.jwt.private-key-location:classpath:keystore/private.pem}") final Resource privateKey) {
+        this(StringUtils.hasText(keyDirectory)
+                ? KeyRingLoader.load(Path.of(keyDirectory))
+                : KeyRing.of(SigningKey.signing(null, signingAlgorithm,
+                        PemUtil.readPublicKey(publicKey, signingAlgorithm.getKeyAlgorithm()),
+                        PemUtil.readPrivateKey(privateKey, signingAlgorithm.getKeyAlgorithm()))));
+        log.info("JWT key ring loaded, active key {} ({})",
+                get().getActiveKey().getKeyId(), get().getActiveKey().getSigningAlgorithm().getJwsName());
+    }
+
+    /**
+     * @return the current key ring
+     */
+    public KeyRing get() {
+        return keyRing.get();
+    }
+
+    /**
+     * Replaces the key ring. Takes effect for the next token signed or verified.
+     *
+     * @param newKeyRing the new key ring
+     */
+    public void rotate(KeyRing newKeyRing) {
+        KeyRing previous = keyRing.getAndSet(newKeyRing);
+        if (!previous.getActiveKey().getKeyId().equals(newKeyRing.getActiveKey().getKeyId())) {
+            log.info("JWT signing key rotated from {} to {}",
+                    previous.getActiveKey().getKeyId(), newKeyRing.getActiveKey().getKeyId());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.authserver.security.jwt;
+
+import com.example.authserver.enums.SigningAlgorithm;
+import com.example.authserver.util.PemUtil;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Loads a {@link KeyRing} from a directory.
+ *
+ * <p>Layout:</p>
+ * <ul>
+ *     <li>{@code <kid>.pub.pem} - public key of every key in the ring (X.509 PEM);</li>
+ *     <li>{@code <kid>.key.pem} - private key (PKCS#8 PEM), only required for the active key;</li>
+ *     <li>{@code active-kid} - text file naming the active signing key.</li>
+ * </ul>
+ *
+ * <p>The signing algorithm of each key is inferred from its type (RSA, EC P-256, Ed25519).
+ * To rotate, add the new key pair, let it propagate to all nodes as a verification key, then
+ * point {@code active-kid} at it; remove the old public key once its tokens have expired.</p>
+ */
+public final class KeyRingLoader {
+
+    static final String PUBLIC_KEY_SUFFIX = ".pub.pem";
+    static final String PRIVATE_KEY_SUFFIX = ".key.pem";
+    static final String ACTIVE_KID_FILE = "active-kid";
+
+    private KeyRingLoader() {
+    }
+
+    /**
+     * Loads the key ring.
+     *
+     * @param directory the key directory
+     * @return the key ring
+     * @throws IllegalArgumentException if the directory does not describe a valid key ring
+     * @throws UncheckedIOException     if the directory cannot be read
+     */
+    public static KeyRing load(Path directory) {
+        try {
+            String activeKeyId = Files.readString(directory.resolve(ACTIVE_KID_FILE), StandardCharsets.UTF_8).trim();
+
+            SigningKey activeKey = null;
+            List<SigningKey> verificationKeys = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().endsWith(PUBLIC_KEY_SUFFIX)).toList()) {
+                    String name = file.getFileName().toString();
+                    String keyId = name.substring(0, name.length() - PUBLIC_KEY_SUFFIX.length());
+                    PublicKey publicKey = PemUtil.readPublicKey(new FileSystemResource(file));
+                    SigningAlgorithm signingAlgorithm = SigningAlgorithm.forKey(publicKey);
+
+                    if (keyId.equals(activeKeyId)) {
+                        PrivateKey privateKey = PemUtil.readPrivateKey(
+                                new FileSystemResource(directory.resolve(keyId + PRIVATE_KEY_SUFFIX)),
+                                signingAlgorithm.getKeyAlgorithm());
+                        activeKey = SigningKey.signing(keyId, signingAlgorithm, publicKey, privateKey);
+                    } else {
+                        verificationKeys.add(SigningKey.verificationOnly(keyId, signingAlgorithm, publicKey));
+                    }
+                }
+            }
+
+            if (activeKey == null) {
+                throw new IllegalArgumentException("No public key " + activeKeyId + PUBLIC_KEY_SUFFIX
+                        + " for the active key id in " + directory);
+            }
+            return KeyRing.of(activeKey, verificationKeys);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read key directory " + directory, e);
+        }
+    }
+}
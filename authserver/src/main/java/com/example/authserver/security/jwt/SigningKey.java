@@ -0,0 +1,89 @@
+package com.example.authserver.security.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.example.authserver.enums.SigningAlgorithm;
+import lombok.Getter;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Base64;
+
+/**
+ * A key of the {@link KeyRing}, identified by its {@code kid}.
+ *
+ * <p>Signing keys hold a private key and can issue tokens; verification-only keys just
+ * check tokens that were signed before the key was rotated out. Both carry a ready-to-use,
+ * thread-safe {@link JWTVerifier} so verification does not build one per request.</p>
+ */
+@Getter
+public final class SigningKey {
+
+    private final String keyId;
+    private final SigningAlgorithm signingAlgorithm;
+    private final PublicKey publicKey;
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final boolean signing;
+
+    private SigningKey(String keyId, SigningAlgorithm signingAlgorithm, PublicKey publicKey, PrivateKey privateKey) {
+        if (keyId == null || keyId.isBlank()) {
+            throw new IllegalArgumentException("Key id must not be blank");
+        }
+        this.keyId = keyId;
+        this.signingAlgorithm = signingAlgorithm;
+        this.publicKey = publicKey;
+        this.algorithm = signingAlgorithm.toAlgorithm(publicKey, privateKey);
+        this.verifier = JWT.require(algorithm).build();
+        this.signing = privateKey != null;
+    }
+
+    /**
+     * Creates a key that can sign and verify tokens.
+     *
+     * @param keyId            the key id, or {@code null} to derive it from the public key
+     * @param signingAlgorithm the signing algorithm
+     * @param publicKey        the public key
+     * @param privateKey       the private key
+     * @return the signing key
+     */
+    public static SigningKey signing(String keyId, SigningAlgorithm signingAlgorithm,
+                                     PublicKey publicKey, PrivateKey privateKey) {
+        if (privateKey == null) {
+            throw new IllegalArgumentException("A signing key requires a private key");
+        }
+        return new SigningKey(keyId != null ? keyId : thumbprint(publicKey), signingAlgorithm, publicKey, privateKey);
+    }
+
+    /**
+     * Creates a key that can only verify tokens.
+     *
+     * @param keyId            the key id, or {@code null} to derive it from the public key
+     * @param signingAlgorithm the signing algorithm
+     * @param publicKey        the public key
+     * @return the verification-only key
+     */
+    public static SigningKey verificationOnly(String keyId, SigningAlgorithm signingAlgorithm, PublicKey publicKey) {
+        return new SigningKey(keyId != null ? keyId : thumbprint(publicKey), signingAlgorithm, publicKey, null);
+    }
+
+    /**
+     * Derives a stable key id from the public key: the base64url encoded SHA-256 digest of
+     * its X.509 encoding. The same key therefore gets the same {@code kid} on every node and
+     * across restarts.
+     *
+     * @param publicKey the public key
+     * @return the key id
+     */
+    public static String thumbprint(PublicKey publicKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
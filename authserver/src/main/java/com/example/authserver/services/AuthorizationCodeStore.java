@@ -0,0 +1,45 @@
+package com.example.authserver.services;
+
+import com.example.authserver.entity.AuthorizationCode;
+
+import java.util.Optional;
+
+/**
+ * Storage for issued authorization codes.
+ *
+ * <p>Codes are short-lived and single-use. A token request first validates the code obtained
+ * through {@link #find(String)} and then redeems it with {@link #remove(String)}, which returns
+ * {@code true} for exactly one caller; of two concurrent requests presenting the same code, the
+ * one that gets {@code false} must be rejected.</p>
+ *
+ * <p>The implementation is selected with {@code app.authorization-code.store}: {@code jpa}
+ * (default, the {@code authorization_code} table) or {@code memory} (a node-local map; codes
+ * must be redeemed on the node that issued them).</p>
+ */
+public interface AuthorizationCodeStore {
+
+    /**
+     * Stores a newly issued code. Sets its creation and expiration time.
+     *
+     * @param code the authorization code
+     */
+    void save(AuthorizationCode code);
+
+    /**
+     * Looks up a code without removing it.
+     *
+     * @param code the code value
+     * @return the code, or empty if unknown, expired or already removed
+     */
+    Optional<AuthorizationCode> find(String code);
+
+    /**
+     * Removes a code that the caller already obtained through {@link #find(String)}, without
+     * reading it again.
+     *
+     * @param code the code value
+     * @return {@code true} if this call removed the code, {@code false} if it was already gone;
+     *         only one caller ever gets {@code true} for a given code
+     */
+    boolean remove(String code);
+}
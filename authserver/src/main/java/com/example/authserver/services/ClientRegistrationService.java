@@ -36,6 +36,16 @@ public interface ClientRegistrationService {
      */
     ClientRegResponseDTO registerClient(ClientRegRequestDTO clientRegRequest);
 
+    /**
+     * Re-hashes a client secret stored in an outdated encoding (e.g. bcrypt) with the current one.
+     * Called after the secret has been verified, as the raw secret is only known at that point.
+     *
+     * @param clientId      the client ID
+     * @param currentSecret the currently stored hash
+     * @param rawSecret     the verified raw secret
+     */
+    void upgradeClientSecret(String clientId, String currentSecret, String rawSecret);
+
     /**
      * Converts a client registration response DTO to a map of key-value pairs.
      *
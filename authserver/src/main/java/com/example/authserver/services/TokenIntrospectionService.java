@@ -0,0 +1,27 @@
+package com.example.authserver.services;
+
+import com.example.authserver.dto.TokenIntrospectionResponseDTO;
+
+import java.util.List;
+
+/**
+ * Service for token introspection (RFC 7662).
+ */
+public interface TokenIntrospectionService {
+
+    /**
+     * Introspects an access token (JWT) or refresh token.
+     *
+     * @param token the token
+     * @return the introspection result, inactive if the token is unknown, invalid, expired or revoked
+     */
+    TokenIntrospectionResponseDTO introspect(String token);
+
+    /**
+     * Introspects several tokens at once.
+     *
+     * @param tokens the tokens
+     * @return the introspection results, in the order of {@code tokens}
+     */
+    List<TokenIntrospectionResponseDTO> introspect(List<String> tokens);
+}
@@ -0,0 +1,23 @@
+package com.example.authserver.services;
+
+/**
+ * Service for token revocation (RFC 7009) and revocation of whole grants.
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revokes an access token (JWT) or refresh token issued to the authenticated client.
+     * Unknown, invalid and expired tokens are ignored.
+     *
+     * @param token the token
+     */
+    void revoke(String token);
+
+    /**
+     * Revokes all access tokens issued so far to a client on behalf of a user.
+     *
+     * @param userId   the user id
+     * @param clientId the client identifier ({@code client_id})
+     */
+    void revokeGrant(String userId, String clientId);
+}
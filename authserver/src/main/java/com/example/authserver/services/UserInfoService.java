@@ -1,5 +1,6 @@
 package com.example.authserver.services;
 
+import com.example.authserver.dto.PublishedDocument;
 import com.example.authserver.dto.UserInfoResponseDTO;
 import com.example.authserver.dto.UserProfileDTO;
 
@@ -9,4 +10,5 @@ public interface UserInfoService {
     void saveUserData(UserProfileDTO profile);
     Map<String,String> getCompleteUserProfile();
     UserInfoResponseDTO getScopeBasedUserInfo();
+    PublishedDocument getUserInfoDocument();
 }
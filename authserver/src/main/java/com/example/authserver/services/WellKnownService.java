@@ -0,0 +1,23 @@
+package com.example.authserver.services;
+
+import com.example.authserver.dto.PublishedDocument;
+
+/**
+ * Service providing the documents published under {@code /.well-known}.
+ */
+public interface WellKnownService {
+
+    /**
+     * Returns the OpenID Provider metadata (OpenID Connect Discovery 1.0).
+     *
+     * @return the serialized document
+     */
+    PublishedDocument getOpenidConfiguration();
+
+    /**
+     * Returns the JSON Web Key Set with all keys tokens are verified against.
+     *
+     * @return the serialized document
+     */
+    PublishedDocument getJwkSet();
+}
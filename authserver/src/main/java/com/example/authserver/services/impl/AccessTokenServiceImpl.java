@@ -1,28 +1,43 @@
 package com.example.authserver.services.impl;
 
+import com.example.authserver.cache.ClientCredentialsTokenCache;
 import com.example.authserver.dto.AccessTokenRequestDTO;
 import com.example.authserver.dto.AccessTokenResponseDTO;
 import com.example.authserver.entity.AccessToken;
 import com.example.authserver.entity.AuthorizationCode;
 import com.example.authserver.entity.Client;
+import com.example.authserver.entity.RefreshToken;
 import com.example.authserver.enums.GrantType;
+import com.example.authserver.enums.TokenPersistence;
 import com.example.authserver.exception.RestInvalidRequestException;
+import com.example.authserver.jfr.CodeConsumptionEvent;
+import com.example.authserver.jfr.TokenIssuanceEvent;
+import com.example.authserver.metrics.MetricTags;
 import com.example.authserver.repository.AccessTokenRepository;
-import com.example.authserver.repository.AuthorizationCodeRepository;
+import com.example.authserver.registry.ClientRegistry;
+import com.example.authserver.registry.ClientSnapshot;
+import com.example.authserver.repository.RefreshTokenRepository;
+import com.example.authserver.scope.ScopeSet;
 import com.example.authserver.security.authentication.PkceAutheticationToken;
 import com.example.authserver.services.AccessTokenService;
+import com.example.authserver.services.AuthorizationCodeStore;
 import com.example.authserver.services.JwtService;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -30,47 +45,161 @@ import java.util.UUID;
  * <p>
  * This service handles the generation, validation, and persistence of access tokens
  * for different OAuth2 grant types such as Authorization Code and Refresh Token.
+ * <p>
+ * With {@code app.token.persistence=refresh_token_only} the signed access token is never
+ * stored; only a compact {@link RefreshToken} row is written. Refresh tokens issued in
+ * either mode can be redeemed regardless of the current mode.
+ * <p>
+ * The {@code client_credentials} grant never touches the database: the client is checked against
+ * its {@link ClientRegistry} snapshot, the token is not stored, and identical requests within
+ * {@code app.client-credentials.reuse-window} get the same token (see {@link ClientCredentialsTokenCache}).
+ * Only the other grants run in a transaction, so this path does not even borrow a connection.
  */
 @Service
-@AllArgsConstructor
 public class AccessTokenServiceImpl implements AccessTokenService {
 
     private final AccessTokenRepository accessTokenRepository;
-    private final AuthorizationCodeRepository authorizationCodeRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AuthorizationCodeStore authorizationCodeStore;
     private final JwtService jwtService;
+    private final TokenPersistence tokenPersistence;
+    private final ClientRegistry clientRegistry;
+    private final ClientCredentialsTokenCache clientCredentialsTokenCache;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> tokenRequestTimers;
+
+    public AccessTokenServiceImpl(AccessTokenRepository accessTokenRepository,
+                                  RefreshTokenRepository refreshTokenRepository,
+                                  AuthorizationCodeStore authorizationCodeStore,
+                                  JwtService jwtService,
+                                  @Value("${app.token.persistence:access_token}") TokenPersistence tokenPersistence,
+                                  ClientRegistry clientRegistry,
+                                  ClientCredentialsTokenCache clientCredentialsTokenCache,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.accessTokenRepository = accessTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.authorizationCodeStore = authorizationCodeStore;
+        this.jwtService = jwtService;
+        this.tokenPersistence = tokenPersistence;
+        this.clientRegistry = clientRegistry;
+        this.clientCredentialsTokenCache = clientCredentialsTokenCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.tokenRequestTimers = Timer.builder("authserver.token.requests")
+                .description("Token endpoint requests per grant type")
+                .withRegistry(meterRegistry);
+    }
 
     /**
      * Generates an access token based on the grant type specified in the request.
+     * Every request is recorded in the {@code authserver.token.requests} timer, tagged by grant type,
+     * outcome and the error code of the failure, and as a {@link TokenIssuanceEvent}.
      *
      * @param requestDTO The access token request containing grant type, code, etc.
      * @return An {@link AccessTokenResponseDTO} containing the generated access token details.
-     * @throws RestInvalidRequestException if the grant type is not supported.
+     * @throws RestInvalidRequestException with the OAuth error code if the request is invalid, or
+     *         "something went wrong." on an unexpected failure.
      */
-    @Transactional
     public AccessTokenResponseDTO generateAccessToken(AccessTokenRequestDTO requestDTO) {
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TokenIssuanceEvent event = new TokenIssuanceEvent();
+        event.begin();
         GrantType grantType;
         try {
             grantType = GrantType.valueOf(requestDTO.getGrant_type().toUpperCase());
         } catch (IllegalArgumentException | NullPointerException e) {
-            throw new RestInvalidRequestException("unsupported_grant_type");
+            RestInvalidRequestException error = new RestInvalidRequestException("unsupported_grant_type");
+            recordTokenRequest(sample, event, "unsupported", error);
+            throw error;
         }
 
         try {
             AccessTokenResponseDTO token = switch (grantType) {
-                case AUTHORIZATION_CODE -> generateForAuthorizationCode(requestDTO);
-                case REFRESH_TOKEN -> generateForRefreshToken(requestDTO);
-                //case CLIENT_CREDENTIALS ->  ToDo: implement client credentials
-                default -> throw new RestInvalidRequestException("unsupported_grant_type");
+                case AUTHORIZATION_CODE -> transactionTemplate.execute(status -> generateForAuthorizationCode(requestDTO));
+                case REFRESH_TOKEN -> transactionTemplate.execute(status -> generateForRefreshToken(requestDTO));
+                case CLIENT_CREDENTIALS -> generateForClientCredentials(requestDTO);
             };
+            recordTokenRequest(sample, event, grantType.getCode(), null);
             return token;
+        } catch (RestInvalidRequestException e) {
+            recordTokenRequest(sample, event, grantType.getCode(), e);
+            throw e;
         } catch (Exception e) {
+            recordTokenRequest(sample, event, grantType.getCode(), e);
             // Todo: create and replace with rest internal server exception.
             throw new RestInvalidRequestException("something went wrong.");
         }
 
     }
 
+    private void recordTokenRequest(Timer.Sample sample, TokenIssuanceEvent event, String grantType, Exception error) {
+        sample.stop(tokenRequestTimers.withTags("grant_type", grantType,
+                MetricTags.OUTCOME, MetricTags.outcome(error), MetricTags.ERROR, MetricTags.errorCode(error)));
+
+        event.end();
+        if (event.shouldCommit()) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            event.setGrantType(grantType);
+            event.setClientId(auth != null ? auth.getName() : null);
+            event.setTokenPersistence(tokenPersistence.name().toLowerCase());
+            event.setOutcome(MetricTags.outcome(error));
+            event.setError(MetricTags.errorCode(error));
+            event.commit();
+        }
+    }
+
+    /**
+     * Issues an access token and refresh token, persisted according to {@code app.token.persistence}.
+     *
+     * @param userId The user ID.
+     * @param client The client requesting the token.
+     * @param scopes The granted scopes.
+     * @return The token response.
+     */
+    private AccessTokenResponseDTO issueTokens(String userId, Client client, String scopes) {
+        return switch (tokenPersistence) {
+            case ACCESS_TOKEN -> toResponseDTO(createAccessToken(userId, client, scopes));
+            case REFRESH_TOKEN_ONLY -> createStatelessAccessToken(userId, client, scopes);
+        };
+    }
+
+    /**
+     * Creates a self-contained access token that is not persisted, together with a
+     * persisted {@link RefreshToken}.
+     *
+     * @param userId The user ID.
+     * @param client The client requesting the token.
+     * @param scopes The granted scopes.
+     * @return The token response.
+     */
+    private AccessTokenResponseDTO createStatelessAccessToken(String userId, Client client, String scopes) {
+
+        RefreshToken refreshToken = refreshTokenRepository.save(RefreshToken
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .userId(userId)
+                .client(client)
+                .scopes(scopes)
+                .build());
+
+        Duration accessTokenExp = Duration.ofMinutes(5);
+        Date expiresAt = new Date( new Date().getTime() + accessTokenExp.toMillis() );
+
+        String jwtToken = jwtService.generateToken(userId, expiresAt, Map.of("scopes",scopes), client.getClientId());
+
+        return AccessTokenResponseDTO.builder()
+                .access_token(jwtToken)
+                .refresh_token(refreshToken.getId())
+                .scope(scopes)
+                .expires_in(accessTokenExp.getSeconds())
+                .refresh_token_expires_in(Duration.between(refreshToken.getCreatedAt(), refreshToken.getExpiresAt()).getSeconds())
+                .token_type("Bearer") // ToDo: remove hardcode
+                .build();
+    }
+
     /**
      * Creates a new {@link AccessToken} for a user and client with given scopes.
      *
@@ -124,30 +253,68 @@ public class AccessTokenServiceImpl implements AccessTokenService {
      * @throws RestInvalidRequestException if the authorization code is invalid or expired.
      */
     private AccessTokenResponseDTO generateForAuthorizationCode(AccessTokenRequestDTO requestDTO) {
-        AuthorizationCode authorizationCode =
-                authorizationCodeRepository
-                        .findById(requestDTO.getCode())
-                        .orElseThrow(() ->
-                                new RestInvalidRequestException("invalid_request"));
+        if (requestDTO.getCode() == null) {
+            throw new RestInvalidRequestException("invalid_request");
+        }
 
-        try {
-            Client client = null;
-            if (authorizationCode != null) {
-                client = authorizationCode.getClient();
-            }
-            validateAccessTokenRequest(requestDTO, authorizationCode, client);
-            AccessToken accessToken = createAccessToken(authorizationCode.getUserId(),
-                                                        client, authorizationCode.getScopes());
-            AccessTokenResponseDTO tokenResponseDTO = toResponseDTO(accessToken);
-            String idToken = generateIdToken(client,authorizationCode);
-            tokenResponseDTO.setId_token(idToken);
-            return tokenResponseDTO;
+        // validated before it is consumed, so a request with the wrong client or redirect URI does
+        // not burn the code; consumed before anything is issued, so concurrent requests cannot both redeem it
+        AuthorizationCode verifiedCode = getPkceVerifiedAuthorizationCode(requestDTO.getCode());
+        AuthorizationCode authorizationCode = verifiedCode != null
+                ? verifiedCode
+                : authorizationCodeStore.find(requestDTO.getCode()).orElse(null);
+        if (authorizationCode == null) {
+            throw new RestInvalidRequestException("invalid_request");
         }
-        finally {
-            if(authorizationCode!=null) {
-                authorizationCodeRepository.delete(authorizationCode);
-            }
+
+        Client client = authorizationCode.getClient();
+        validateAccessTokenRequest(requestDTO, authorizationCode, client);
+        if (!consumeAuthorizationCode(requestDTO.getCode(), verifiedCode != null)) {
+            throw new RestInvalidRequestException("invalid_request");
         }
+
+        AccessTokenResponseDTO tokenResponseDTO = issueTokens(authorizationCode.getUserId(),
+                                                              client, authorizationCode.getScopes());
+        String idToken = generateIdToken(client,authorizationCode);
+        tokenResponseDTO.setId_token(idToken);
+        return tokenResponseDTO;
+    }
+
+    /**
+     * Returns the authorization code loaded by PKCE verification earlier in this request, so it
+     * is not read from the store again.
+     *
+     * @param code The authorization code from the request.
+     * @return The verified code, or {@code null} if the request was not PKCE verified for this code.
+     */
+    private AuthorizationCode getPkceVerifiedAuthorizationCode(String code) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth instanceof PkceAutheticationToken pkceToken && code.equals(pkceToken.getAuthorizationCode())) {
+            return pkceToken.getVerifiedAuthorizationCode();
+        }
+        return null;
+    }
+
+    /**
+     * Removes a validated authorization code from the store. Only one request can ever remove a given code.
+     *
+     * @param code         The authorization code from the request.
+     * @param loadedByPkce Whether the code was loaded by PKCE verification rather than by this grant.
+     * @return {@code true} if this request consumed the code, {@code false} if it was already used.
+     */
+    private boolean consumeAuthorizationCode(String code, boolean loadedByPkce) {
+        CodeConsumptionEvent event = new CodeConsumptionEvent();
+        event.begin();
+
+        boolean consumed = authorizationCodeStore.remove(code);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setLoadedByPkce(loadedByPkce);
+            event.setConsumed(consumed);
+            event.commit();
+        }
+        return consumed;
     }
 
     /**
@@ -158,35 +325,100 @@ public class AccessTokenServiceImpl implements AccessTokenService {
      * @throws RestInvalidRequestException if the refresh token is invalid or expired.
      */
     private AccessTokenResponseDTO generateForRefreshToken(AccessTokenRequestDTO requestDTO) {
-        AccessToken oldToken = accessTokenRepository.findByRefreshToken(requestDTO.getRefresh_token())
+        if (requestDTO.getRefresh_token() == null) {
+            throw new RestInvalidRequestException("invalid_refresh_token");
+        }
+
+        // validated first, then redeemed with a conditional statement, so a failed request does not
+        // burn the token and of two concurrent requests only the one that changed the row is served
+        RefreshToken refreshToken = refreshTokenRepository.findById(requestDTO.getRefresh_token()).orElse(null);
+        if (refreshToken != null) {
+            validateRefreshTokenRequest(refreshToken.getClient(), refreshToken.getExpiresAt(),
+                                        refreshToken.getScopes(), requestDTO);
+            if (refreshTokenRepository.deleteByTokenId(refreshToken.getId()) != 1) {
+                throw new RestInvalidRequestException("invalid_refresh_token");
+            }
+            return issueTokens(refreshToken.getUserId(), refreshToken.getClient(), requestDTO.getScopes());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        AccessToken oldToken = accessTokenRepository.findByRefreshToken(requestDTO.getRefresh_token(),
+                        now.minus(AccessToken.REFRESH_TOKEN_LIFETIME))
                 .orElseThrow(() -> new RestInvalidRequestException("invalid_refresh_token"));
 
-        try {
-            validateRefreshTokenRequest(oldToken,requestDTO);
-            AccessToken token = createAccessToken(oldToken.getUserId(), oldToken.getClient(), requestDTO.getScopes());
-            return toResponseDTO(token);
-        } finally {
-            oldToken.setRefreshTokenExpiresAt(LocalDateTime.now().minusHours(1));
-            accessTokenRepository.save(oldToken);
+        validateRefreshTokenRequest(oldToken.getClient(), oldToken.getRefreshTokenExpiresAt(),
+                                    oldToken.getScopes(), requestDTO);
+        if (accessTokenRepository.expireRefreshToken(oldToken.getToken(), oldToken.getCreatedAt(),
+                                                     now, now.minusHours(1)) != 1) {
+            throw new RestInvalidRequestException("invalid_refresh_token");
+        }
+        return issueTokens(oldToken.getUserId(), oldToken.getClient(), requestDTO.getScopes());
+    }
+
+    /**
+     * Generates an access token using the Client Credentials grant type. No refresh token or ID
+     * token is issued, and nothing is persisted.
+     *
+     * @param requestDTO The request containing the optional scopes; all scopes of the client if omitted.
+     * @return The token response, with a reused token if one was signed within the reuse window.
+     * @throws RestInvalidRequestException if the client may not use the grant or the scopes exceed its scopes.
+     */
+    private AccessTokenResponseDTO generateForClientCredentials(AccessTokenRequestDTO requestDTO) {
+        // confidential clients only, authenticated with their secret rather than a PKCE code verifier
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (!(auth instanceof UsernamePasswordAuthenticationToken)) {
+            throw new RestInvalidRequestException("unauthorized_client");
+        }
+        ClientSnapshot client = clientRegistry.find(auth.getName())
+                .orElseThrow(() -> new RestInvalidRequestException("unauthorized_client"));
+        if (client.isPublic() ||
+                !client.getAuthorizationGrantTypesSet().contains(GrantType.CLIENT_CREDENTIALS.getCode())) {
+            throw new RestInvalidRequestException("unauthorized_client");
+        }
+
+        ScopeSet scopes = requestDTO.getScopes() == null || requestDTO.getScopes().isBlank()
+                ? client.getScopeSet()
+                : ScopeSet.parse(requestDTO.getScopes());
+        if (scopes.isEmpty() || !client.getScopeSet().containsAll(scopes)) {
+            throw new RestInvalidRequestException("invalid_scope");
         }
+
+        Instant now = Instant.now();
+        ClientCredentialsTokenCache.IssuedToken token = clientCredentialsTokenCache.get(client.getClientId(), scopes);
+        if (token == null) {
+            Instant expiresAt = now.plus(AccessToken.ACCESS_TOKEN_LIFETIME);
+            String jwtToken = jwtService.generateToken(client.getClientId(), Date.from(expiresAt),
+                    Map.of("scopes", scopes.toString()), client.getClientId());
+            token = new ClientCredentialsTokenCache.IssuedToken(client.getClientId(), jwtToken, expiresAt);
+            clientCredentialsTokenCache.put(client.getClientId(), scopes, token);
+        }
+
+        return AccessTokenResponseDTO.builder()
+                .access_token(token.token())
+                .scope(scopes.toString())
+                .expires_in(Duration.between(now, token.expiresAt()).getSeconds())
+                .token_type("Bearer") // ToDo: remove hardcode
+                .build();
     }
 
     /**
      * Validates a refresh token request.
      *
-     * @param oldToken   The old access token associated with the refresh token.
-     * @param requestDTO The incoming request.
+     * @param client           The client the refresh token was issued to.
+     * @param refreshExpiresAt The expiry of the refresh token.
+     * @param grantedScopes    The scopes granted with the refresh token.
+     * @param requestDTO       The incoming request.
      * @throws RestInvalidRequestException if validation fails.
      */
-    private void validateRefreshTokenRequest(AccessToken oldToken, AccessTokenRequestDTO requestDTO) {
+    private void validateRefreshTokenRequest(Client client, LocalDateTime refreshExpiresAt,
+                                             String grantedScopes, AccessTokenRequestDTO requestDTO) {
 
         String clientId = getClientIdOfAuthenticatedClientId();
-        Client client = oldToken.getClient();
         if(client==null || !client.getClientId().equals(clientId)) {
             throw new RestInvalidRequestException("invalid_request");
         }
 
-        if(oldToken.getRefreshTokenExpiresAt().isBefore(LocalDateTime.now()) ) {
+        if(refreshExpiresAt.isBefore(LocalDateTime.now()) ) {
             throw new RestInvalidRequestException("refresh_token_expired");
         }
 
@@ -194,13 +426,8 @@ public class AccessTokenServiceImpl implements AccessTokenService {
             throw new RestInvalidRequestException("invalid_scope");
         }
 
-        String[] requestedScopes = requestDTO.getScopes().split(" ");
-        Set<String> oldTokenScopes = Set.of(oldToken.getScopes().split(" "));
-        for(String scope : requestedScopes) {
-            if(scope.isBlank()) continue;
-            if(!oldTokenScopes.contains(scope)) {
-                throw new RestInvalidRequestException("invalid_scope");
-            }
+        if(!ScopeSet.parse(grantedScopes).containsAll(ScopeSet.parse(requestDTO.getScopes()))) {
+            throw new RestInvalidRequestException("invalid_scope");
         }
     }
 
@@ -1,22 +1,25 @@
 package com.example.authserver.services.impl;
 
 import com.example.authserver.dto.ConsentDTO;
+import com.example.authserver.entity.AccessToken;
 import com.example.authserver.entity.AuthorizationConsent;
-import com.example.authserver.entity.Client;
 import com.example.authserver.entity.User;
 import com.example.authserver.exception.InvalidRequestException;
+import com.example.authserver.jfr.ConsentLookupEvent;
 import com.example.authserver.repository.AccessTokenRepository;
 import com.example.authserver.repository.AuthorizationConsentRepository;
-import com.example.authserver.repository.ClientRepository;
+import com.example.authserver.repository.RefreshTokenRepository;
+import com.example.authserver.registry.ClientRegistry;
+import com.example.authserver.scope.ScopeSet;
 import com.example.authserver.services.AuthorizationConsentService;
+import com.example.authserver.services.TokenRevocationService;
 import lombok.AllArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
 
-import java.util.HashSet;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -31,8 +34,10 @@ import java.util.UUID;
 public class AuthorizationConsentServiceImpl implements AuthorizationConsentService {
 
     private final AuthorizationConsentRepository consentRepository;
-    private final ClientRepository clientRepository;
+    private final ClientRegistry clientRegistry;
     private final AccessTokenRepository accessTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * Checks whether the authenticated user has already provided consent for a given client and scope.
@@ -43,7 +48,7 @@ public class AuthorizationConsentServiceImpl implements AuthorizationConsentServ
      */
     public boolean consentExistsForScope(String clientId,
                                          String scope) {
-        return getNewRequestedScopes(clientId,scope).isEmpty();
+        return getConsentedScopes(clientId).containsAll(ScopeSet.parse(scope));
     }
 
     /**
@@ -56,16 +61,30 @@ public class AuthorizationConsentServiceImpl implements AuthorizationConsentServ
     public Set<String> getNewRequestedScopes(String clientId,
                                               String scope) {
 
+        return ScopeSet.parse(scope).minus(getConsentedScopes(clientId)).toSet();
+    }
+
+    /**
+     * Returns the scopes the authenticated user has consented to for a client.
+     * Each lookup is recorded as a {@link ConsentLookupEvent}.
+     *
+     * @param clientId the ID of the client
+     * @return the consented scopes, empty if there is no consent
+     */
+    private ScopeSet getConsentedScopes(String clientId) {
+        ConsentLookupEvent event = new ConsentLookupEvent();
+        event.begin();
+
         AuthorizationConsent consent = consentRepository
                 .findByUserIdAndClientId(getAuthenticatedUser().getUser_id(),clientId);
 
-        Set<String> requestScopes = stringToSet(scope);
-
-        if(consent!=null && consent.getScopesSet()!=null) {
-            requestScopes.removeAll(consent.getScopesSet());
+        event.end();
+        if (event.shouldCommit()) {
+            event.setClientId(clientId);
+            event.setFound(consent != null);
+            event.commit();
         }
-
-        return requestScopes;
+        return consent != null ? consent.getScopeSet() : ScopeSet.EMPTY;
     }
 
     /**
@@ -80,7 +99,7 @@ public class AuthorizationConsentServiceImpl implements AuthorizationConsentServ
     public AuthorizationConsent saveConsent(String clientId,
                                              String scope) {
 
-        Client client = clientRepository.findClientByClientId(clientId)
+        clientRegistry.find(clientId)
                     .orElseThrow(()->new InvalidRequestException("Invalid client."));
 
         AuthorizationConsent consent = consentRepository
@@ -94,10 +113,7 @@ public class AuthorizationConsentServiceImpl implements AuthorizationConsentServ
                     .scope(scope)
                     .build();
         } else {
-            Set<String> scopeSet = new HashSet<>();
-            scopeSet.addAll(consent.getScopesSet());
-            scopeSet.addAll(stringToSet(scope));
-            consent.setScopesSet(scopeSet);
+            consent.setScopeSet(consent.getScopeSet().union(ScopeSet.parse(scope)));
         }
         consent = consentRepository.save(consent);
         return consent;
@@ -111,7 +127,7 @@ public class AuthorizationConsentServiceImpl implements AuthorizationConsentServ
         return consentRepository.findByUserId(user.getUser_id())
                 .stream()
                 .map(c ->
-                        new ConsentDTO(c.getClientId(),c.getScopesSet()))
+                        new ConsentDTO(c.getClientId(),c.getScopeSet().toSet()))
                 .toList();
 
     }
@@ -121,18 +137,11 @@ public class AuthorizationConsentServiceImpl implements AuthorizationConsentServ
     public void revokeConsents(String clientId) {
         User user = getAuthenticatedUser();
         consentRepository.deleteAllByUserIdAndClientId(user.getUser_id(), clientId);
-        accessTokenRepository.deleteAllByUserIdAndClientId(user.getUser_id(), clientId);
-    }
-
-    /**
-     * Converts a space-delimited string into a Set of strings.
-     *
-     * @param delimitedString the string containing delimited items
-     * @return a Set of individual strings
-     */
-    private Set<String> stringToSet(String delimitedString) {
-        String[] stringArray = StringUtils.delimitedListToStringArray(delimitedString," ");
-        return new HashSet<>(Set.of(stringArray));
+        accessTokenRepository.deleteAllByUserIdAndClientId(user.getUser_id(), clientId,
+                LocalDateTime.now().minus(AccessToken.REFRESH_TOKEN_LIFETIME));
+        refreshTokenRepository.deleteAllByUserIdAndClientId(user.getUser_id(), clientId);
+        // issued access tokens are not looked up when used and stay valid until revoked explicitly
+        tokenRevocationService.revokeGrant(user.getUser_id(), clientId);
     }
 
     /**
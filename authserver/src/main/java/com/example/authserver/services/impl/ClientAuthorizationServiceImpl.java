@@ -2,12 +2,13 @@ package com.example.authserver.services.impl;
 
 import com.example.authserver.dto.ClientAuthorizationRedirectParams;
 import com.example.authserver.entity.AuthorizationCode;
-import com.example.authserver.entity.Client;
 import com.example.authserver.entity.User;
 import com.example.authserver.exception.InvalidRequestException;
 import com.example.authserver.exception.RedirectBackWithErrorException;
-import com.example.authserver.repository.AuthorizationCodeRepository;
-import com.example.authserver.repository.ClientRepository;
+import com.example.authserver.registry.ClientRegistry;
+import com.example.authserver.registry.ClientSnapshot;
+import com.example.authserver.scope.ScopeSet;
+import com.example.authserver.services.AuthorizationCodeStore;
 import com.example.authserver.services.ClientAuthorizationService;
 import lombok.AllArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -26,8 +27,8 @@ import java.util.UUID;
 @AllArgsConstructor
 public class ClientAuthorizationServiceImpl implements ClientAuthorizationService {
 
-    private final ClientRepository clientRepository;
-    private final AuthorizationCodeRepository codeRepository;
+    private final ClientRegistry clientRegistry;
+    private final AuthorizationCodeStore authorizationCodeStore;
 
     /**
      * Generates a new authorization code for a client based on the provided redirect parameters.
@@ -40,7 +41,7 @@ public class ClientAuthorizationServiceImpl implements ClientAuthorizationServic
     @Transactional
     public String getAuthorizationCode(ClientAuthorizationRedirectParams params) {
 
-        Client client = clientRepository.findClientByClientId(params.getClient_id()).orElse(null);
+        ClientSnapshot client = clientRegistry.find(params.getClient_id()).orElse(null);
 
         validateClientDetails(client, params);
 
@@ -50,7 +51,7 @@ public class ClientAuthorizationServiceImpl implements ClientAuthorizationServic
                 .userId(getAuthenticatedUser().getUser_id())
                 .scopes(params.getScope())
                 .redirectUri(params.getRedirect_uri())
-                .client(client)
+                .client(client.toClient())
                 .build();
 
         if (params.getCode_challenge() != null && !params.getCode_challenge().isBlank()) {
@@ -58,7 +59,7 @@ public class ClientAuthorizationServiceImpl implements ClientAuthorizationServic
             code.setCodeChallengeMethod(params.getCode_challenge_method());
         }
 
-        code = codeRepository.save(code);
+        authorizationCodeStore.save(code);
 
         return code.getCode();
     }
@@ -77,12 +78,12 @@ public class ClientAuthorizationServiceImpl implements ClientAuthorizationServic
      * Validates the details of a client against the provided redirect parameters.
      * Checks for client existence, valid redirect URI, response type, and requested scopes.
      *
-     * @param client the Client entity retrieved from the repository
+     * @param client the client snapshot retrieved from the registry
      * @param params the redirect parameters containing client request details
      * @throws InvalidRequestException if client does not exist or redirect URI is invalid
      * @throws RedirectBackWithErrorException if response_type or scope is invalid
      */
-    private void validateClientDetails(Client client, ClientAuthorizationRedirectParams params) {
+    private void validateClientDetails(ClientSnapshot client, ClientAuthorizationRedirectParams params) {
 
         if (client == null) {
             throw new InvalidRequestException("Unknown Client.");
@@ -96,11 +97,8 @@ public class ClientAuthorizationServiceImpl implements ClientAuthorizationServic
             throw new RedirectBackWithErrorException("Invalid response_type.");
         }
 
-        for (String scope : params.getScope().split(" ")) {
-            if (scope.isBlank()) continue;
-            if (!client.getScopesSet().contains(scope)) {
-                throw new RedirectBackWithErrorException("Invalid scope.");
-            }
+        if (!client.getScopeSet().containsAll(ScopeSet.parse(params.getScope()))) {
+            throw new RedirectBackWithErrorException("Invalid scope.");
         }
     }
 
@@ -111,7 +109,7 @@ public class ClientAuthorizationServiceImpl implements ClientAuthorizationServic
      * @param params the redirect parameters containing client request details
      */
     public void validateClientDetails(String clientId, ClientAuthorizationRedirectParams params) {
-        Client client = clientRepository.findClientByClientId(clientId).orElse(null);
+        ClientSnapshot client = clientRegistry.find(clientId).orElse(null);
         validateClientDetails(client, params);
     }
 }
@@ -8,12 +8,16 @@ import com.example.authserver.enums.ApplicationType;
 import com.example.authserver.enums.ClientAuthenticationType;
 import com.example.authserver.enums.GrantType;
 import com.example.authserver.enums.OpenidScopes;
+import com.example.authserver.registry.ClientChangedEvent;
+import com.example.authserver.registry.ClientRegistry;
+import com.example.authserver.registry.ClientSnapshot;
 import com.example.authserver.repository.ClientRepository;
+import com.example.authserver.security.crypto.ClientSecretEncoder;
 import com.example.authserver.services.ClientRegistrationService;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,16 +37,18 @@ import java.util.stream.Collectors;
 public class ClientRegistrationServiceImpl implements ClientRegistrationService {
 
     private final ClientRepository clientRepository;
-    private final PasswordEncoder encoder;
+    private final ClientRegistry clientRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClientSecretEncoder clientSecretEncoder;
 
     /**
-     * Retrieves a client by its clientId.
+     * Retrieves a client by its clientId from the {@link ClientRegistry}.
      *
      * @param clientId the unique identifier of the client
-     * @return an Optional containing the client if found, or empty if not found
+     * @return an Optional containing a detached copy of the client if found, or empty if not found
      */
     public Optional<Client> getClient(String clientId) {
-        return clientRepository.findClientByClientId(clientId);
+        return clientRegistry.find(clientId).map(ClientSnapshot::toClient);
     }
 
     /**
@@ -92,7 +98,7 @@ public class ClientRegistrationServiceImpl implements ClientRegistrationService
                 .builder()
                 .clientId(clientId)
                 .clientName(clientRegRequest.getClientName())
-                .clientSecret(encoder.encode(secret))
+                .clientSecret(clientSecretEncoder.encode(secret))
                 .redirectUris(clientRegRequest.getRedirectUri())
                 .scopes(scopes)
                 .createdBy(getAuthenticatedUser().getUser_id())
@@ -102,12 +108,28 @@ public class ClientRegistrationServiceImpl implements ClientRegistrationService
         client.setAuthorizationGrantTypesSet(grantType);
 
         client = clientRepository.save(client);
+        eventPublisher.publishEvent(new ClientChangedEvent(client.getClientId()));
 
         ClientRegResponseDTO dto = getClientRegResponseDTO(client);
         dto.setClientSecret(secret);
         return dto;
     }
 
+    /**
+     * Re-hashes a client secret with the current encoding. The update is conditional on the
+     * stored hash, so concurrent upgrades of the same client write once.
+     *
+     * @param clientId      the client ID
+     * @param currentSecret the currently stored hash
+     * @param rawSecret     the verified raw secret
+     */
+    @Transactional
+    public void upgradeClientSecret(String clientId, String currentSecret, String rawSecret) {
+        if (clientRepository.updateClientSecret(clientId, currentSecret, clientSecretEncoder.encode(rawSecret)) == 1) {
+            eventPublisher.publishEvent(new ClientChangedEvent(clientId));
+        }
+    }
+
     /**
      * Converts a ClientRegResponseDTO into a map representation.
      *
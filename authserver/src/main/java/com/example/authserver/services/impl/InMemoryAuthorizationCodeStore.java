@@ -0,0 +1,50 @@
+package com.example.authserver.services.impl;
+
+import com.example.authserver.cache.ExpiringCache;
+import com.example.authserver.cache.ExpiringCacheMetrics;
+import com.example.authserver.entity.AuthorizationCode;
+import com.example.authserver.services.AuthorizationCodeStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Node-local {@link AuthorizationCodeStore}, avoiding all database round-trips for codes.
+ *
+ * <p>Codes are kept in an {@link ExpiringCache} until they expire and are removed with an
+ * atomic map removal. Codes do not survive a restart and are only known to the node that
+ * issued them, so this store needs a single node or session affinity on {@code /oauth2/authorize}
+ * and {@code /api/oauth2/token}. {@code app.authorization-code.maximum-size} must exceed the
+ * number of codes issued within their five minute lifetime, or live codes are evicted.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "app.authorization-code.store", havingValue = "memory")
+public class InMemoryAuthorizationCodeStore implements AuthorizationCodeStore {
+
+    private final ExpiringCache<String, AuthorizationCode> codes;
+
+    public InMemoryAuthorizationCodeStore(@Value("${app.authorization-code.maximum-size:1000000}") int maximumSize,
+                                          MeterRegistry meterRegistry) {
+        this.codes = ExpiringCacheMetrics.monitor(meterRegistry, new ExpiringCache<>(maximumSize), "authorization-codes");
+    }
+
+    @Override
+    public void save(AuthorizationCode code) {
+        code.prePersist();
+        codes.put(code.getCode(), code, code.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Override
+    public Optional<AuthorizationCode> find(String code) {
+        return Optional.ofNullable(codes.get(code));
+    }
+
+    @Override
+    public boolean remove(String code) {
+        return codes.invalidate(code) != null;
+    }
+}
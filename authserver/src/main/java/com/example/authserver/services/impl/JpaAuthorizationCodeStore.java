@@ -0,0 +1,52 @@
+package com.example.authserver.services.impl;
+
+import com.example.authserver.entity.AuthorizationCode;
+import com.example.authserver.repository.AuthorizationCodeRepository;
+import com.example.authserver.services.AuthorizationCodeStore;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * {@link AuthorizationCodeStore} backed by the {@code authorization_code} table.
+ *
+ * <p>A code is removed by a conditional {@code DELETE}; the row lock makes a concurrent
+ * second delete of the same code affect no rows, so only one transaction wins.</p>
+ *
+ * <p>Codes older than {@link AuthorizationCode#LIFETIME} are treated as absent.</p>
+ */
+@Service
+@AllArgsConstructor
+@ConditionalOnProperty(name = "app.authorization-code.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaAuthorizationCodeStore implements AuthorizationCodeStore {
+
+    private final AuthorizationCodeRepository authorizationCodeRepository;
+
+    @Override
+    public void save(AuthorizationCode code) {
+        authorizationCodeRepository.save(code);
+    }
+
+    @Override
+    public Optional<AuthorizationCode> find(String code) {
+        return authorizationCodeRepository.findByCode(code, issuedAfter());
+    }
+
+    @Override
+    @Transactional
+    public boolean remove(String code) {
+        return authorizationCodeRepository.deleteByCode(code, issuedAfter()) == 1;
+    }
+
+    /**
+     * Codes issued before this time have expired; bounding lookups by it restricts them to the
+     * newest partitions of the table.
+     */
+    private static LocalDateTime issuedAfter() {
+        return LocalDateTime.now().minus(AuthorizationCode.LIFETIME);
+    }
+}
@@ -1,42 +1,92 @@
 package com.example.authserver.services.impl;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.auth0.jwt.interfaces.JWTVerifier;
+import com.example.authserver.enums.SigningAlgorithm;
+import com.example.authserver.metrics.MetricTags;
+import com.example.authserver.security.jwt.KeyRing;
+import com.example.authserver.security.jwt.KeyRingHolder;
+import com.example.authserver.security.jwt.SigningKey;
 import com.example.authserver.services.JwtService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 
 /**
- * Service implementation for generating and verifying JWT tokens using RSA256.
+ * Service implementation for generating and verifying JWT tokens.
  *
  * <p>This service handles creation of signed JWTs with custom claims and expiration,
  * as well as verification of tokens to ensure integrity and authenticity.</p>
  *
- * <p>It uses an RSA key pair loaded from PEM files on the classpath.</p>
+ * <p>Keys come from the {@link KeyRingHolder}: tokens are signed with the active key, whose
+ * {@code kid} and algorithm ({@code RS256}, {@code ES256} or {@code EdDSA}) are published in the
+ * token header, and verified with the key named by their {@code kid}. Tokens without a
+ * {@code kid} are verified with the active key.</p>
+ *
+ * <p>Signing and verification are timed in {@code authserver.jwt.sign} (by algorithm) and
+ * {@code authserver.jwt.verify} (by outcome and error).</p>
+ *
+ * @see SigningAlgorithm
  */
 @Service
 public class JwtServiceImpl implements JwtService {
 
-    private final Algorithm rsa256;
-    private final JWTVerifier verifier;
+    /** Issuer used when {@code app.issuer} is not set. */
+    public static final String DEFAULT_ISSUER = "https://secureLoginOauthProvider.com";
+
+    private final KeyRingHolder keyRingHolder;
+    private final String issuer;
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> signTimers;
+    private final Meter.MeterProvider<Timer> verifyTimers;
+    private final Timer verifiedTimer;
 
     /**
-     * Constructs a JwtServiceImpl with the provided RSA public and private keys.
+     * Constructs a JwtServiceImpl using the given key ring.
      *
-     * @param publicKey  the RSA public key used to verify JWT signatures
-     * @param privateKey the RSA private key used to sign JWTs
+     * @param keyRingHolder holder of the current key ring
+     * @param issuer        the {@code iss} claim of issued tokens
+     * @param meterRegistry the registry of the sign and verify timers
      */
-    public JwtServiceImpl(@Value("classpath:keystore/public.pem") final RSAPublicKey publicKey,
-                          @Value("classpath:keystore/private.pem") final RSAPrivateKey privateKey) {
-        this.rsa256 = Algorithm.RSA256(publicKey, privateKey);
-        this.verifier = JWT.require(this.rsa256).build();
+    @Autowired
+    public JwtServiceImpl(final KeyRingHolder keyRingHolder,
+                          @Value("${app.issuer:" + DEFAULT_ISSUER + "}") final String issuer,
+                          final MeterRegistry meterRegistry) {
+        this.keyRingHolder = keyRingHolder;
+        this.issuer = issuer;
+        this.meterRegistry = meterRegistry;
+        this.signTimers = Timer.builder("authserver.jwt.sign")
+                .description("JWT signing")
+                .withRegistry(meterRegistry);
+        this.verifyTimers = Timer.builder("authserver.jwt.verify")
+                .description("JWT verification")
+                .withRegistry(meterRegistry);
+        this.verifiedTimer = verifyTimers.withTags(MetricTags.OUTCOME, MetricTags.SUCCESS, MetricTags.ERROR, MetricTags.NONE);
+    }
+
+    /**
+     * Constructs a JwtServiceImpl with a single, fixed key pair.
+     *
+     * @param signingAlgorithm the algorithm used to sign and verify tokens
+     * @param publicKey        the public key used to verify JWT signatures
+     * @param privateKey       the private key used to sign JWTs
+     */
+    public JwtServiceImpl(final SigningAlgorithm signingAlgorithm,
+                          final PublicKey publicKey,
+                          final PrivateKey privateKey) {
+        this(new KeyRingHolder(KeyRing.of(SigningKey.signing(null, signingAlgorithm, publicKey, privateKey))), DEFAULT_ISSUER,
+                Metrics.globalRegistry);
     }
 
     /**
@@ -49,10 +99,13 @@ public class JwtServiceImpl implements JwtService {
      * @return a signed JWT token as a string
      */
     public String generateToken(String subject, Date expiresAt, Map<String, String> claims, String audience) {
+        SigningKey signingKey = keyRingHolder.get().getActiveKey();
         var jwtBuilder = JWT.create()
+                .withKeyId(signingKey.getKeyId())
+                .withJWTId(UUID.randomUUID().toString())
                 .withSubject(subject)
                 .withIssuedAt(new Date())
-                .withIssuer("https://secureLoginOauthProvider.com") // ToDo: change issuer
+                .withIssuer(issuer)
                 .withExpiresAt(expiresAt);
 
         if(claims!=null) {
@@ -61,7 +114,10 @@ public class JwtServiceImpl implements JwtService {
         if(audience!=null && !audience.isBlank()) {
             jwtBuilder.withAudience(audience);
         }
-        return jwtBuilder.sign(rsa256);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String token = jwtBuilder.sign(signingKey.getAlgorithm());
+        sample.stop(signTimers.withTag("algorithm", signingKey.getAlgorithm().getName()));
+        return token;
     }
 
     /**
@@ -72,7 +128,24 @@ public class JwtServiceImpl implements JwtService {
      * @throws com.auth0.jwt.exceptions.JWTVerificationException if the token is invalid or tampered with
      */
     public DecodedJWT verifyToken(String token) {
-        return verifier.verify(token);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        JWTVerificationException error = null;
+        try {
+            DecodedJWT jwt = JWT.decode(token);
+            KeyRing keyRing = keyRingHolder.get();
+            String keyId = jwt.getKeyId();
+            SigningKey key = keyId != null ? keyRing.findKey(keyId) : keyRing.getActiveKey();
+            if (key == null) {
+                throw new JWTVerificationException("Unknown key id " + keyId);
+            }
+            return key.getVerifier().verify(jwt);
+        } catch (JWTVerificationException e) {
+            error = e;
+            throw e;
+        } finally {
+            sample.stop(error == null ? verifiedTimer : verifyTimers.withTags(
+                    MetricTags.OUTCOME, MetricTags.FAILURE, MetricTags.ERROR, MetricTags.errorCode(error)));
+        }
     }
 
 }
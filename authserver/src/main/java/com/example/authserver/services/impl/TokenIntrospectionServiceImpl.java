@@ -0,0 +1,204 @@
+package com.example.authserver.services.impl;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.cache.ExpiringCache;
+import com.example.authserver.cache.ExpiringCacheMetrics;
+import com.example.authserver.dto.TokenIntrospectionResponseDTO;
+import com.example.authserver.entity.AccessToken;
+import com.example.authserver.entity.Client;
+import com.example.authserver.entity.RefreshToken;
+import com.example.authserver.exception.RestInvalidRequestException;
+import com.example.authserver.repository.AccessTokenRepository;
+import com.example.authserver.repository.RefreshTokenRepository;
+import com.example.authserver.security.authentication.VerifiedToken;
+import com.example.authserver.security.authentication.VerifiedTokenResolver;
+import com.example.authserver.services.TokenIntrospectionService;
+import com.example.authserver.util.HashUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the {@link TokenIntrospectionService}.
+ *
+ * <p>Access tokens are JWTs and are checked through {@link VerifiedTokenResolver}, so active
+ * results are cached until the token expires and shared with bearer authentication. Refresh
+ * tokens are opaque and looked up in the {@code refresh_token} and {@code access_token} tables,
+ * with at most one query per table for a whole batch. Refresh tokens found inactive (unknown,
+ * expired, redeemed or revoked) can never become active again and are remembered, so repeated
+ * introspection of them is answered from memory.</p>
+ */
+@Service
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+    private final VerifiedTokenResolver verifiedTokenResolver;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AccessTokenRepository accessTokenRepository;
+    private final ExpiringCache<String, Boolean> inactiveRefreshTokens;
+    private final int maxBatchSize;
+
+    public TokenIntrospectionServiceImpl(VerifiedTokenResolver verifiedTokenResolver,
+                                         RefreshTokenRepository refreshTokenRepository,
+                                         AccessTokenRepository accessTokenRepository,
+                                         @Value("${app.introspection.inactive-cache.maximum-size:100000}") int inactiveCacheSize,
+                                         @Value("${app.introspection.max-batch-size:100}") int maxBatchSize,
+                                         MeterRegistry meterRegistry) {
+        this.verifiedTokenResolver = verifiedTokenResolver;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accessTokenRepository = accessTokenRepository;
+        this.inactiveRefreshTokens = ExpiringCacheMetrics.monitor(meterRegistry,
+                new ExpiringCache<>(inactiveCacheSize), "introspection.inactive-refresh-tokens");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Introspects an access token (JWT) or refresh token.
+     *
+     * @param token the token
+     * @return the introspection result
+     */
+    public TokenIntrospectionResponseDTO introspect(String token) {
+        return introspect(Collections.singletonList(token)).get(0);
+    }
+
+    /**
+     * Introspects several tokens at once.
+     *
+     * @param tokens the tokens
+     * @return the introspection results, in the order of {@code tokens}
+     * @throws RestInvalidRequestException if no tokens or more than {@code app.introspection.max-batch-size} are given
+     */
+    public List<TokenIntrospectionResponseDTO> introspect(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty() || tokens.size() > maxBatchSize) {
+            throw new RestInvalidRequestException("invalid_request");
+        }
+
+        Map<String, TokenIntrospectionResponseDTO> results = new HashMap<>();
+        Map<String, String> refreshTokens = new HashMap<>();
+        for (String token : tokens) {
+            if (token == null || token.isBlank() || results.containsKey(token) || refreshTokens.containsKey(token)) {
+                continue;
+            }
+            if (isJwt(token)) {
+                results.put(token, introspectAccessToken(token));
+                continue;
+            }
+            String cacheKey = HashUtil.generateSha256Base64Encoded(token);
+            if (inactiveRefreshTokens.get(cacheKey) != null) {
+                results.put(token, TokenIntrospectionResponseDTO.inactive());
+            } else {
+                refreshTokens.put(token, cacheKey);
+            }
+        }
+
+        if (!refreshTokens.isEmpty()) {
+            results.putAll(introspectRefreshTokens(refreshTokens));
+        }
+
+        return tokens.stream()
+                .map(token -> results.getOrDefault(token, TokenIntrospectionResponseDTO.inactive()))
+                .toList();
+    }
+
+    /**
+     * Introspects an access token.
+     *
+     * @param token The JWT.
+     * @return The introspection result.
+     */
+    private TokenIntrospectionResponseDTO introspectAccessToken(String token) {
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = verifiedTokenResolver.resolve(token);
+        } catch (BadCredentialsException e) {
+            return TokenIntrospectionResponseDTO.inactive();
+        }
+
+        DecodedJWT jwt = verifiedToken.getJwt();
+        Instant issuedAt = jwt.getIssuedAtAsInstant();
+        return TokenIntrospectionResponseDTO.builder()
+                .active(true)
+                .scope(jwt.getClaim("scopes").asString())
+                .client_id(verifiedToken.getPrincipal().getClientId())
+                .sub(verifiedToken.getPrincipal().getUserId())
+                .token_type("Bearer")
+                .exp(verifiedToken.getExpiresAt().getEpochSecond())
+                .iat(issuedAt != null ? issuedAt.getEpochSecond() : null)
+                .jti(jwt.getId())
+                .build();
+    }
+
+    /**
+     * Introspects refresh tokens of both persistence modes, remembering the inactive ones.
+     *
+     * @param refreshTokens The refresh tokens, mapped to their cache keys.
+     * @return The introspection results by refresh token.
+     */
+    private Map<String, TokenIntrospectionResponseDTO> introspectRefreshTokens(Map<String, String> refreshTokens) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, TokenIntrospectionResponseDTO> results = new HashMap<>();
+
+        for (RefreshToken token : refreshTokenRepository.findAllWithClientByIdIn(refreshTokens.keySet())) {
+            results.put(token.getId(), refreshTokenResponse(token.getClient(), token.getUserId(), token.getScopes(),
+                                                            token.getCreatedAt(), token.getExpiresAt(), now));
+        }
+
+        Set<String> remaining = new HashSet<>(refreshTokens.keySet());
+        remaining.removeAll(results.keySet());
+        if (!remaining.isEmpty()) {
+            for (AccessToken token : accessTokenRepository.findAllWithClientByRefreshTokenIn(remaining,
+                    now.minus(AccessToken.REFRESH_TOKEN_LIFETIME))) {
+                results.put(token.getRefreshToken(), refreshTokenResponse(token.getClient(), token.getUserId(), token.getScopes(),
+                                                                          token.getCreatedAt(), token.getRefreshTokenExpiresAt(), now));
+            }
+        }
+
+        Instant rememberUntil = Instant.now().plus(AccessToken.REFRESH_TOKEN_LIFETIME);
+        refreshTokens.forEach((token, cacheKey) -> {
+            TokenIntrospectionResponseDTO result = results.get(token);
+            if (result == null || !result.isActive()) {
+                inactiveRefreshTokens.put(cacheKey, Boolean.TRUE, rememberUntil);
+                results.put(token, TokenIntrospectionResponseDTO.inactive());
+            }
+        });
+        return results;
+    }
+
+    private TokenIntrospectionResponseDTO refreshTokenResponse(Client client, String userId, String scopes,
+                                                               LocalDateTime createdAt, LocalDateTime expiresAt,
+                                                               LocalDateTime now) {
+        if (!expiresAt.isAfter(now)) {
+            return TokenIntrospectionResponseDTO.inactive();
+        }
+        return TokenIntrospectionResponseDTO.builder()
+                .active(true)
+                .scope(scopes)
+                .client_id(client.getClientId())
+                .sub(userId)
+                .exp(toEpochSecond(expiresAt))
+                .iat(toEpochSecond(createdAt))
+                .build();
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    /**
+     * Access tokens are JWTs ({@code header.payload.signature}); refresh tokens are opaque UUIDs.
+     */
+    private static boolean isJwt(String token) {
+        return token.chars().filter(c -> c == '.').count() == 2;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.authserver.services.impl;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.authserver.cache.ClientCredentialsTokenCache;
+import com.example.authserver.entity.AccessToken;
+import com.example.authserver.entity.RefreshToken;
+import com.example.authserver.entity.TokenRevocation;
+import com.example.authserver.exception.RestInvalidRequestException;
+import com.example.authserver.repository.AccessTokenRepository;
+import com.example.authserver.repository.RefreshTokenRepository;
+import com.example.authserver.repository.TokenRevocationRepository;
+import com.example.authserver.revocation.RevocationList;
+import com.example.authserver.revocation.TokenRevokedEvent;
+import com.example.authserver.services.JwtService;
+import com.example.authserver.services.TokenRevocationService;
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Implementation of the {@link TokenRevocationService}.
+ *
+ * <p>Access tokens are not looked up anywhere when they are used, so revoking one records its
+ * {@code jti} in the {@code token_revocation} table, from where the {@link RevocationList} enforces
+ * it until the token expires. Revoking a refresh token deletes or expires it; where access tokens
+ * are stored ({@code app.token.persistence=access_token}) the access token issued with it is revoked
+ * as well. A revoked grant covers every token of the user for the client issued up to the revocation,
+ * in either persistence mode.</p>
+ */
+@Service
+@AllArgsConstructor
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AccessTokenRepository accessTokenRepository;
+    private final JwtService jwtService;
+    private final ClientCredentialsTokenCache clientCredentialsTokenCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Revokes an access token (JWT) or refresh token issued to the authenticated client.
+     *
+     * @param token the token
+     * @throws RestInvalidRequestException if no token is given or it was issued to another client
+     */
+    @Transactional
+    @Override
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            throw new RestInvalidRequestException("invalid_request");
+        }
+        String clientId = getAuthenticatedClientId();
+        if (isJwt(token)) {
+            revokeAccessToken(token, clientId);
+        } else {
+            revokeRefreshToken(token, clientId);
+        }
+    }
+
+    @Transactional
+    @Override
+    public void revokeGrant(String userId, String clientId) {
+        // iat has second precision, so tokens issued in the second of the revocation are covered
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        save(TokenRevocation.builder()
+                .userId(userId)
+                .clientId(clientId)
+                .issuedBefore(now)
+                .expiresAt(now.plusSeconds(1).plus(AccessToken.ACCESS_TOKEN_LIFETIME))
+                .build());
+    }
+
+    private void revokeAccessToken(String token, String clientId) {
+        DecodedJWT jwt;
+        try {
+            jwt = jwtService.verifyToken(token);
+        } catch (JWTVerificationException e) {
+            return;
+        }
+        List<String> audience = jwt.getAudience();
+        if (audience == null || !audience.contains(clientId)) {
+            throw new RestInvalidRequestException("unauthorized_client");
+        }
+        revokeJwt(jwt, clientId);
+        // a client_credentials token must not be handed out again
+        clientCredentialsTokenCache.invalidate(clientId);
+    }
+
+    private void revokeRefreshToken(String token, String clientId) {
+        RefreshToken refreshToken = refreshTokenRepository.findById(token).orElse(null);
+        if (refreshToken != null) {
+            if (!refreshToken.getClient().getClientId().equals(clientId)) {
+                throw new RestInvalidRequestException("unauthorized_client");
+            }
+            refreshTokenRepository.delete(refreshToken);
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        AccessToken accessToken = accessTokenRepository
+                .findByRefreshToken(token, now.minus(AccessToken.REFRESH_TOKEN_LIFETIME))
+                .orElse(null);
+        if (accessToken == null) {
+            return;
+        }
+        if (!accessToken.getClient().getClientId().equals(clientId)) {
+            throw new RestInvalidRequestException("unauthorized_client");
+        }
+        accessTokenRepository.updateRefreshTokenExpiresAt(accessToken.getToken(), accessToken.getCreatedAt(),
+                                                          now.minusHours(1));
+        if (accessToken.getExpiresAt().isAfter(now)) {
+            revokeJwt(JWT.decode(accessToken.getToken()), clientId);
+        }
+    }
+
+    private void revokeJwt(DecodedJWT jwt, String clientId) {
+        save(TokenRevocation.builder()
+                .jti(jwt.getId())
+                .userId(jwt.getSubject())
+                .clientId(clientId)
+                .expiresAt(toLocalDateTime(jwt.getExpiresAtAsInstant()))
+                .build());
+    }
+
+    private void save(TokenRevocation revocation) {
+        eventPublisher.publishEvent(new TokenRevokedEvent(tokenRevocationRepository.save(revocation)));
+    }
+
+    private String getAuthenticatedClientId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth.getName();
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    /**
+     * Access tokens are JWTs ({@code header.payload.signature}); refresh tokens are opaque UUIDs.
+     */
+    private static boolean isJwt(String token) {
+        return token.chars().filter(c -> c == '.').count() == 2;
+    }
+}
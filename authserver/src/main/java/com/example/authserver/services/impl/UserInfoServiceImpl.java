@@ -1,18 +1,29 @@
 package com.example.authserver.services.impl;
 
+import com.example.authserver.cache.UserChangedEvent;
+import com.example.authserver.cache.UserInfoCache;
+import com.example.authserver.dto.PublishedDocument;
 import com.example.authserver.dto.UserInfoResponseDTO;
 import com.example.authserver.dto.UserProfileDTO;
 import com.example.authserver.entity.User;
 import com.example.authserver.entity.user.Address;
 import com.example.authserver.entity.user.Phone;
 import com.example.authserver.entity.user.UserProfile;
+import com.example.authserver.enums.OpenidScopes;
 import com.example.authserver.exception.ProfileNotUpdatedException;
+import com.example.authserver.exception.RestInvalidRequestException;
 import com.example.authserver.repository.UserRepository;
 import com.example.authserver.repository.user.AddressRepository;
 import com.example.authserver.repository.user.PhoneRepository;
 import com.example.authserver.repository.user.UserProfileRepository;
+import com.example.authserver.scope.ScopeSet;
+import com.example.authserver.security.authentication.BearerTokenAuthenticationToken;
+import com.example.authserver.security.authentication.TokenPrincipal;
 import com.example.authserver.services.UserInfoService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,7 +31,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -30,6 +40,9 @@ public class UserInfoServiceImpl implements UserInfoService {
     private final PhoneRepository phoneRepository;
     private final UserProfileRepository userProfileRepository;
     private final UserRepository userRepository;
+    private final UserInfoCache userInfoCache;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -61,15 +74,16 @@ public class UserInfoServiceImpl implements UserInfoService {
         phone.setUser(user);
         phoneRepository.save(phone);
 
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUser_id()));
     }
 
     public Map<String,String> getCompleteUserProfile() {
 
-        User user = userRepository.findByUsername(getAuthenticatedUser().getUsername()).orElse(null);
+        String userId = getAuthenticatedUser().getUser_id();
 
-        UserProfile profile = user.getProfile();
-        Address address = user.getAddresses().stream().findFirst().orElse(null);
-        Phone phone = user.getPhones().stream().findFirst().orElse(null);
+        UserProfile profile = userProfileRepository.findByUserId(userId).orElse(null);
+        Address address = findFirstAddress(userId);
+        Phone phone = findFirstPhone(userId);
 
         if(profile == null || address == null || phone == null ) {
             throw new ProfileNotUpdatedException();
@@ -90,43 +104,77 @@ public class UserInfoServiceImpl implements UserInfoService {
         return savedUser;
     }
 
+    /**
+     * Builds the userinfo response for the granted scopes. Only the sub-entities required by
+     * those scopes are loaded.
+     *
+     * @return the userinfo response, or {@code null} without the {@code openid} scope
+     */
     @Override
     public UserInfoResponseDTO getScopeBasedUserInfo() {
 
-        User user = getAuthenticatedUser();
+        ScopeSet scopes = getTokenScopes();
+
+        if(!scopes.contains(OpenidScopes.OPENID)) {
+            return null;
+        }
 
-        var authorities = getAuthorities();
+        return buildUserInfo(getTokenUser(), scopes);
+    }
 
-        Set<String> scopes = authorities.stream()
-                .map(GrantedAuthority::getAuthority)
-                .filter(s -> s.startsWith("SCOPE_"))
-                .map(s -> s.substring("SCOPE_".length()))
-                .collect(Collectors.toSet());
+    /**
+     * Returns the serialized userinfo response for the granted scopes, served from the
+     * {@link UserInfoCache} when possible.
+     *
+     * @return the userinfo document, or {@code null} without the {@code openid} scope
+     */
+    @Override
+    public PublishedDocument getUserInfoDocument() {
 
-        if(!scopes.contains("openid")) {
+        ScopeSet scopes = getTokenScopes();
+
+        if(!scopes.contains(OpenidScopes.OPENID)) {
             return null;
         }
 
+        String userId = getTokenUserId();
+        PublishedDocument document = userInfoCache.get(userId, scopes);
+        if (document != null) {
+            return document;
+        }
+
+        long generation = userInfoCache.generation();
+        try {
+            document = PublishedDocument.of(objectMapper.writeValueAsBytes(buildUserInfo(getTokenUser(), scopes)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize userinfo response", e);
+        }
+        userInfoCache.put(userId, scopes, document, generation);
+        return document;
+    }
+
+    private UserInfoResponseDTO buildUserInfo(User user, ScopeSet scopes) {
+
         UserInfoResponseDTO.UserInfoResponseDTOBuilder builder =
                 UserInfoResponseDTO.builder();
 
         builder.sub(user.getUser_id());
 
-        if(scopes.contains("email")) {
+        if(scopes.contains(OpenidScopes.EMAIL)) {
             builder.email(user.getEmail());
             builder.emailVerified(user.isEnabled());
         }
 
-        if(scopes.contains("phone")) {
-            Phone phone = user.getPhones().stream().findFirst().orElse(null);
+        if(scopes.contains(OpenidScopes.PHONE)) {
+            Phone phone = findFirstPhone(user.getUser_id());
             if(phone!=null) {
                 builder.phoneNumber(phone.getNumber());
                 builder.phoneNumberVerified(false);
             }
         }
 
-        if(scopes.contains("profile")) {
-            UserProfile profile = user.getProfile();
+        if(scopes.contains(OpenidScopes.PROFILE)) {
+            UserProfile profile = userProfileRepository.findByUserId(user.getUser_id()).orElse(null);
             if(profile!=null) {
                 builder.name(profile.getFirstName() + " " + profile.getLastName());
                 builder.givenName(profile.getFirstName());
@@ -135,8 +183,8 @@ public class UserInfoServiceImpl implements UserInfoService {
             }
         }
 
-        if(scopes.contains("address")) {
-            Address address = user.getAddresses().stream().findFirst().orElse(null);
+        if(scopes.contains(OpenidScopes.ADDRESS)) {
+            Address address = findFirstAddress(user.getUser_id());
             if(address!=null) {
                 Map<String,String> map = new LinkedHashMap<>();
                 map.put("street", address.getStreet());
@@ -151,6 +199,14 @@ public class UserInfoServiceImpl implements UserInfoService {
         return builder.build();
     }
 
+    private Address findFirstAddress(String userId) {
+        return addressRepository.findAllByUserId(userId).stream().findFirst().orElse(null);
+    }
+
+    private Phone findFirstPhone(String userId) {
+        return phoneRepository.findAllByUserId(userId).stream().findFirst().orElse(null);
+    }
+
     /**
      * Retrieves the currently authenticated user from the security context.
      *
@@ -161,9 +217,51 @@ public class UserInfoServiceImpl implements UserInfoService {
         return (User) auth.getPrincipal();
     }
 
-    private Collection<? extends GrantedAuthority> getAuthorities() {
+    /**
+     * Retrieves the user of a bearer-authenticated request. With a claims-only principal the
+     * user is loaded here, as this is the only place that needs the full aggregate.
+     *
+     * @return the User entity the access token was issued to
+     * @throws RestInvalidRequestException if the user no longer exists
+     */
+    private User getTokenUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth.getPrincipal() instanceof TokenPrincipal tokenPrincipal) {
+            return userRepository.findById(tokenPrincipal.getUserId())
+                    .orElseThrow(() -> new RestInvalidRequestException("invalid_token"));
+        }
+        return (User) auth.getPrincipal();
+    }
+
+    /**
+     * Retrieves the user id of a bearer-authenticated request without loading the user.
+     *
+     * @return the id of the user the access token was issued to
+     */
+    private String getTokenUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth.getPrincipal() instanceof TokenPrincipal tokenPrincipal) {
+            return tokenPrincipal.getUserId();
+        }
+        return ((User) auth.getPrincipal()).getUser_id();
+    }
+
+    /**
+     * Retrieves the scopes granted to the current request: those of the bearer token or, for any
+     * other authentication, the ones named by its {@code SCOPE_} authorities.
+     *
+     * @return the granted scopes
+     */
+    private ScopeSet getTokenScopes() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return auth.getAuthorities();
+        if (auth instanceof BearerTokenAuthenticationToken bearerToken && bearerToken.getScopes() != null) {
+            return bearerToken.getScopes();
+        }
+        return ScopeSet.of(auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(s -> s.startsWith("SCOPE_"))
+                .map(s -> s.substring("SCOPE_".length()))
+                .toList());
     }
 
 }
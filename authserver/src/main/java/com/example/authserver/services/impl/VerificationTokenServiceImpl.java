@@ -1,11 +1,13 @@
 package com.example.authserver.services.impl;
 
+import com.example.authserver.cache.UserChangedEvent;
 import com.example.authserver.entity.User;
 import com.example.authserver.entity.VerificationToken;
 import com.example.authserver.repository.UserRepository;
 import com.example.authserver.repository.VerificationTokenRepository;
 import com.example.authserver.services.VerificationTokenService;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
 
     private final VerificationTokenRepository verificationTokenRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Generates a unique verification token for the given {@link User}.
@@ -79,6 +82,7 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
                 User user = verificationToken.getUser();
                 user.setEnabled(true);
                 userRepository.save(user);
+                eventPublisher.publishEvent(new UserChangedEvent(user.getUser_id()));
                 return true;
             }
         } finally {
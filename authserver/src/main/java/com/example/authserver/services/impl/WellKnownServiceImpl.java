@@ -0,0 +1,111 @@
+package com.example.authserver.services.impl;
+
+import com.example.authserver.dto.PublishedDocument;
+import com.example.authserver.enums.ClientAuthenticationType;
+import com.example.authserver.enums.OpenidScopes;
+import com.example.authserver.security.jwt.JwkUtil;
+import com.example.authserver.security.jwt.KeyRing;
+import com.example.authserver.security.jwt.KeyRingHolder;
+import com.example.authserver.security.jwt.SigningKey;
+import com.example.authserver.services.WellKnownService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the {@link WellKnownService}.
+ *
+ * <p>Both documents are serialized once per {@link KeyRing} and reused until the key ring is
+ * rotated, so serving them costs a volatile read and a reference comparison.</p>
+ */
+@Service
+public class WellKnownServiceImpl implements WellKnownService {
+
+    private final KeyRingHolder keyRingHolder;
+    private final ObjectMapper objectMapper;
+    private final String issuer;
+
+    private volatile Documents documents;
+
+    public WellKnownServiceImpl(KeyRingHolder keyRingHolder,
+                                ObjectMapper objectMapper,
+                                @Value("${app.issuer:" + JwtServiceImpl.DEFAULT_ISSUER + "}") String issuer) {
+        this.keyRingHolder = keyRingHolder;
+        this.objectMapper = objectMapper;
+        this.issuer = issuer.endsWith("/") ? issuer.substring(0, issuer.length() - 1) : issuer;
+    }
+
+    public PublishedDocument getOpenidConfiguration() {
+        return currentDocuments().openidConfiguration();
+    }
+
+    public PublishedDocument getJwkSet() {
+        return currentDocuments().jwkSet();
+    }
+
+    /**
+     * Returns the documents of the current key ring, serializing them if the ring changed.
+     * Concurrent callers may serialize the same ring twice, which is harmless.
+     */
+    private Documents currentDocuments() {
+        KeyRing keyRing = keyRingHolder.get();
+        Documents current = documents;
+        if (current == null || current.keyRing() != keyRing) {
+            current = new Documents(keyRing, publish(openidConfiguration(keyRing)), publish(jwkSet(keyRing)));
+            documents = current;
+        }
+        return current;
+    }
+
+    private Map<String, Object> openidConfiguration(KeyRing keyRing) {
+        Set<String> signingAlgorithms = new LinkedHashSet<>();
+        signingAlgorithms.add(keyRing.getActiveKey().getSigningAlgorithm().getJwsName());
+        keyRing.getKeys().forEach(key -> signingAlgorithms.add(key.getSigningAlgorithm().getJwsName()));
+
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("issuer", issuer);
+        configuration.put("authorization_endpoint", issuer + "/oauth2/authorize");
+        configuration.put("token_endpoint", issuer + "/api/oauth2/token");
+        configuration.put("userinfo_endpoint", issuer + "/userinfo");
+        configuration.put("introspection_endpoint", issuer + "/api/oauth2/introspect");
+        configuration.put("revocation_endpoint", issuer + "/api/oauth2/revoke");
+        configuration.put("jwks_uri", issuer + "/.well-known/jwks.json");
+        configuration.put("scopes_supported", List.of(OpenidScopes.values()).stream()
+                .map(scope -> scope.name().toLowerCase()).toList());
+        configuration.put("response_types_supported", List.of("code"));
+        configuration.put("grant_types_supported", List.of("authorization_code", "refresh_token", "client_credentials"));
+        configuration.put("subject_types_supported", List.of("public"));
+        configuration.put("id_token_signing_alg_values_supported", List.copyOf(signingAlgorithms));
+        configuration.put("token_endpoint_auth_methods_supported", List.of(ClientAuthenticationType.CLIENT_SECRET_BASIC.getCode()));
+        configuration.put("introspection_endpoint_auth_methods_supported", List.of(ClientAuthenticationType.CLIENT_SECRET_BASIC.getCode()));
+        configuration.put("revocation_endpoint_auth_methods_supported", List.of(ClientAuthenticationType.CLIENT_SECRET_BASIC.getCode()));
+        // SHA256 (padded standard Base64) is still accepted for existing clients, but not advertised
+        configuration.put("code_challenge_methods_supported", List.of("S256", "plain"));
+        return configuration;
+    }
+
+    private Map<String, Object> jwkSet(KeyRing keyRing) {
+        List<Map<String, Object>> keys = keyRing.getKeys().stream()
+                .map(JwkUtil::toJwk)
+                .toList();
+        return Map.of("keys", keys);
+    }
+
+    private PublishedDocument publish(Object document) {
+        try {
+            return PublishedDocument.of(objectMapper.writeValueAsBytes(document));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize well-known document", e);
+        }
+    }
+
+    private record Documents(KeyRing keyRing, PublishedDocument openidConfiguration, PublishedDocument jwkSet) {
+    }
+}
@@ -3,6 +3,7 @@ package com.example.authserver.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
@@ -26,7 +27,7 @@ public class HashUtil {
      * @return A Base64-encoded string representing the SHA-256 hash of the input data.
      * @throws RuntimeException If the SHA-256 algorithm is not available in the JRE.
      */
-    public static String generateSha256Base64Encoded(String data) throws NoSuchAlgorithmException {
+    public static String generateSha256Base64Encoded(String data) {
         try {
             MessageDigest md = MessageDigest.getInstance(SHA_256_ALGORITHM);
             md.update(data.getBytes());
@@ -35,7 +36,26 @@ public class HashUtil {
 
         } catch (NoSuchAlgorithmException e) {
             logger.error("Failed to get SHA-256 algorithm", e);
-            throw e;
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Generates a SHA-256 hash of the ASCII input string and then Base64URL-encodes the hash without
+     * padding, as the {@code S256} code challenge of RFC 7636.
+     *
+     * @param data The string to be hashed and encoded.
+     * @return A Base64URL-encoded string representing the SHA-256 hash of the input data.
+     * @throws RuntimeException If the SHA-256 algorithm is not available in the JRE.
+     */
+    public static String generateSha256Base64UrlEncoded(String data) {
+        try {
+            byte[] digest = MessageDigest.getInstance(SHA_256_ALGORITHM).digest(data.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+
+        } catch (NoSuchAlgorithmException e) {
+            logger.error("Failed to get SHA-256 algorithm", e);
+            throw new IllegalStateException(e);
         }
     }
 }
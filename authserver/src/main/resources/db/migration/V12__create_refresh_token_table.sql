@@ -0,0 +1,10 @@
+CREATE TABLE refresh_token (
+    id VARCHAR(36) PRIMARY KEY,
+    client_id VARCHAR(100) NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    scopes VARCHAR(255),
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_client_id_refresh_token FOREIGN KEY (client_id) REFERENCES client(id) ON DELETE CASCADE,
+    CONSTRAINT fk_user_id_refresh_token FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
@@ -0,0 +1,15 @@
+CREATE TABLE mail_outbox (
+    id VARCHAR(36) PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL,
+    claim VARCHAR(36),
+    last_error VARCHAR(500),
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_mail_outbox_due ON mail_outbox (status, next_attempt_at);
+CREATE INDEX idx_mail_outbox_claim ON mail_outbox (claim);
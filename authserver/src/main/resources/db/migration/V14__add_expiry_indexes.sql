@@ -0,0 +1,5 @@
+-- range scans of the expired row reaper
+CREATE INDEX idx_authorization_code_expires_at ON authorization_code (expires_at);
+CREATE INDEX idx_access_token_refresh_token_expires_at ON access_token (refresh_token_expires_at);
+CREATE INDEX idx_refresh_token_expires_at ON refresh_token (expires_at);
+CREATE INDEX idx_verification_tokens_expires_at ON verification_tokens (expires_at);
@@ -0,0 +1,51 @@
+-- Range-partitions access_token and authorization_code by issuance day (TO_DAYS(created_at)),
+-- so that expired rows are removed with DROP PARTITION. Partitioned InnoDB tables support no
+-- foreign keys and no unique keys without the partitioning column: the foreign keys and their
+-- indexes are dropped, the primary keys are extended with created_at and the refresh token
+-- index is no longer unique (refresh tokens are random UUIDs).
+--
+-- Rows issued up to today end up in p_history, later rows in p_future. PartitionMaintainer
+-- splits daily partitions off p_future and drops those past app.partitioning.retention-days.
+
+ALTER TABLE access_token
+    DROP FOREIGN KEY fk_client_id_token,
+    DROP FOREIGN KEY fk_user_id_token;
+
+ALTER TABLE access_token
+    DROP INDEX fk_client_id_token,
+    DROP INDEX fk_user_id_token,
+    DROP INDEX refresh_token,
+    MODIFY created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (token(255), created_at),
+    ADD INDEX idx_access_token_refresh_token (refresh_token),
+    ADD INDEX idx_access_token_user_client (user_id, client_id);
+
+ALTER TABLE authorization_code
+    DROP FOREIGN KEY fk_client_id,
+    DROP FOREIGN KEY fk_user_id;
+
+ALTER TABLE authorization_code
+    DROP INDEX fk_client_id,
+    DROP INDEX fk_user_id,
+    MODIFY created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (code, created_at);
+
+SET @history_bound = TO_DAYS(CURDATE() + INTERVAL 1 DAY);
+
+SET @partition_access_token = CONCAT(
+    'ALTER TABLE access_token PARTITION BY RANGE (TO_DAYS(created_at)) (',
+    'PARTITION p_history VALUES LESS THAN (', @history_bound, '), ',
+    'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+PREPARE partition_statement FROM @partition_access_token;
+EXECUTE partition_statement;
+DEALLOCATE PREPARE partition_statement;
+
+SET @partition_authorization_code = CONCAT(
+    'ALTER TABLE authorization_code PARTITION BY RANGE (TO_DAYS(created_at)) (',
+    'PARTITION p_history VALUES LESS THAN (', @history_bound, '), ',
+    'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+PREPARE partition_statement FROM @partition_authorization_code;
+EXECUTE partition_statement;
+DEALLOCATE PREPARE partition_statement;
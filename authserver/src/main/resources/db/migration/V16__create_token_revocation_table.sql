@@ -0,0 +1,14 @@
+-- revoked access tokens (jti) and revoked grants (all tokens of user_id for client_id issued
+-- at or before issued_before); rows are kept until the last affected token has expired
+CREATE TABLE token_revocation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(36),
+    user_id VARCHAR(100),
+    client_id VARCHAR(100) NOT NULL,
+    issued_before DATETIME,
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_token_revocation_expires_at ON token_revocation (expires_at);
+CREATE INDEX idx_token_revocation_created_at ON token_revocation (created_at);
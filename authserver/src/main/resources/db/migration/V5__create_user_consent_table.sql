@@ -6,7 +6,7 @@ CREATE TABLE consents (
     granted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     expires_at TIMESTAMP NULL,
     active BOOLEAN NOT NULL DEFAULT TRUE,
-    CONSTRAINT fk_consents_user FOREIGN KEY (user_id) REFERENCES users(user_id),
+    CONSTRAINT fk_consents_user FOREIGN KEY (user_id) REFERENCES users(id),
     CONSTRAINT fk_consents_client FOREIGN KEY (client_id) REFERENCES client(client_id),
     UNIQUE KEY uniq_user_client (user_id, client_id)
 );
\ No newline at end of file
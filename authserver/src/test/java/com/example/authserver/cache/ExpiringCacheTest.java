@@ -0,0 +1,173 @@
+package com.example.authserver.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ExpiringCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Test
+    void returnsValueUntilItExpires() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, clock);
+        cache.put("a", "1", clock.instant().plusSeconds(60));
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(cache.get("a")).isEqualTo("1");
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void doesNotStoreExpiredEntries() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, clock);
+        cache.put("a", "1", clock.instant());
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, clock);
+        cache.put("a", "1", clock.instant().plusSeconds(60));
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        clock.advance(Duration.ofMinutes(1));
+        cache.get("a");
+
+        assertThat(cache.hitCount()).isEqualTo(2);
+        assertThat(cache.missCount()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isZero();
+    }
+
+    @Test
+    void dropsExpiredEntriesBeforeEvictingLiveOnes() {
+        ExpiringCache<Integer, String> cache = new ExpiringCache<>(10, clock);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, "short", clock.instant().plusSeconds(10));
+        }
+        for (int i = 5; i < 10; i++) {
+            cache.put(i, "long", clock.instant().plusSeconds(60));
+        }
+        clock.advance(Duration.ofSeconds(10));
+
+        cache.put(10, "new", clock.instant().plusSeconds(60));
+
+        assertThat(cache.size()).isEqualTo(6);
+        assertThat(cache.evictionCount()).isZero();
+        for (int i = 5; i <= 10; i++) {
+            assertThat(cache.get(i)).isNotNull();
+        }
+    }
+
+    @Test
+    void evictsATenthWhenFullOfLiveEntries() {
+        ExpiringCache<Integer, String> cache = new ExpiringCache<>(100, clock);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "v", clock.instant().plusSeconds(60));
+        }
+
+        cache.put(100, "v", clock.instant().plusSeconds(60));
+
+        assertThat(cache.size()).isEqualTo(91);
+        assertThat(cache.evictionCount()).isEqualTo(10);
+        assertThat(cache.get(100)).isEqualTo("v");
+    }
+
+    @Test
+    void replacingAKeyInAFullCacheKeepsItWithinBounds() {
+        ExpiringCache<Integer, String> cache = new ExpiringCache<>(5, clock);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, "v", clock.instant().plusSeconds(60));
+        }
+
+        cache.put(0, "w", clock.instant().plusSeconds(60));
+
+        assertThat(cache.size()).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void invalidatesByKeyAndPredicate() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, clock);
+        cache.put("a", "client-1", clock.instant().plusSeconds(60));
+        cache.put("b", "client-1", clock.instant().plusSeconds(60));
+        cache.put("c", "client-2", clock.instant().plusSeconds(60));
+
+        assertThat(cache.invalidate("a")).isEqualTo("client-1");
+        assertThat(cache.invalidate("a")).isNull();
+        cache.invalidateIf("client-1"::equals);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("client-2");
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void purgesExpiredEntries() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, clock);
+        cache.put("a", "1", clock.instant().plusSeconds(10));
+        cache.put("b", "2", clock.instant().plusSeconds(60));
+        clock.advance(Duration.ofSeconds(30));
+
+        cache.purgeExpired();
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("b")).isEqualTo("2");
+    }
+
+    @Test
+    void zeroMaximumSizeDisablesCaching() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(0, clock);
+        cache.put("a", "1", clock.instant().plusSeconds(60));
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsNegativeMaximumSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ExpiringCache<>(-1, clock));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
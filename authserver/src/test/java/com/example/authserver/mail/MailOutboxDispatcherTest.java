@@ -0,0 +1,207 @@
+package com.example.authserver.mail;
+
+import com.example.authserver.dto.UserDTO;
+import com.example.authserver.entity.MailOutboxMessage;
+import com.example.authserver.enums.MailStatus;
+import com.example.authserver.repository.MailOutboxRepository;
+import com.example.authserver.repository.UserRepository;
+import com.example.authserver.services.RegistrationService;
+import com.example.authserver.services.impl.MailServiceImpl;
+import com.example.authserver.services.impl.RegistrationServiceImpl;
+import com.example.authserver.services.impl.VerificationTokenServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static java.time.temporal.ChronoUnit.SECONDS;
+
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import({MailServiceImpl.class, RegistrationServiceImpl.class, VerificationTokenServiceImpl.class,
+         MailOutboxDispatcherTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MailOutboxDispatcherTest {
+
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(30);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static SmtpStandIn smtp;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MailOutboxDispatcher dispatcher;
+
+    @BeforeAll
+    static void startSmtp() throws IOException {
+        smtp = new SmtpStandIn();
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        smtp.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        smtp.reset();
+        mailOutboxRepository.deleteAll();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getPort());
+        mailSender.getJavaMailProperties().put("mail.smtp.from", "authserver@example.com");
+        dispatcher = new MailOutboxDispatcher(mailOutboxRepository, mailSender, 50, MAX_ATTEMPTS, RETRY_BACKOFF,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void sendsABatchOverOneConnectionAndDeletesSentMessages() {
+        IntStream.range(0, 5).forEach(i -> queue("user" + i + "@example.com"));
+
+        assertThat(dispatcher.dispatch()).isEqualTo(5);
+
+        assertThat(smtp.getConnections()).isEqualTo(1);
+        assertThat(smtp.getDelivered()).containsExactlyInAnyOrder(
+                "user0@example.com", "user1@example.com", "user2@example.com", "user3@example.com", "user4@example.com");
+        assertThat(mailOutboxRepository.count()).isZero();
+        assertThat(dispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    void retriesATemporaryFailureWithExponentialBackoff() {
+        queue("ok@example.com");
+        MailOutboxMessage deferred = queue("busy@example.com");
+        smtp.reply("busy@example.com", "451 4.3.0 try again later");
+
+        LocalDateTime firstAttempt = LocalDateTime.now();
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+
+        assertThat(smtp.getDelivered()).containsExactly("ok@example.com");
+        MailOutboxMessage retried = mailOutboxRepository.findById(deferred.getId()).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(MailStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getClaim()).isNull();
+        assertThat(retried.getLastError()).isNotBlank();
+        assertThat(retried.getNextAttemptAt()).isCloseTo(firstAttempt.plus(RETRY_BACKOFF), within(5, SECONDS));
+
+        // not due before the backoff has passed
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(smtp.getConnections()).isEqualTo(1);
+
+        makeDue(deferred.getId());
+        LocalDateTime secondAttempt = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        retried = mailOutboxRepository.findById(deferred.getId()).orElseThrow();
+        assertThat(retried.getAttempts()).isEqualTo(2);
+        assertThat(retried.getNextAttemptAt()).isCloseTo(secondAttempt.plus(RETRY_BACKOFF.multipliedBy(2)), within(5, SECONDS));
+
+        smtp.reply("busy@example.com", "250 OK");
+        makeDue(deferred.getId());
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        assertThat(mailOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void marksAMessageFailedAfterMaxAttempts() {
+        MailOutboxMessage message = queue("busy@example.com");
+        smtp.reply("busy@example.com", "451 4.3.0 try again later");
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            makeDue(message.getId());
+            dispatcher.dispatch();
+        }
+
+        MailOutboxMessage failed = mailOutboxRepository.findById(message.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(MailStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+
+        makeDue(message.getId());
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(smtp.getConnections()).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void queuesNoMailWhenTheRegistrationRollsBack() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            registrationService.registerUser(user("rolled-back"));
+            assertThat(mailOutboxRepository.count()).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(mailOutboxRepository.count()).isZero();
+        assertThat(userRepository.existsByUsername("rolled-back")).isFalse();
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(smtp.getConnections()).isZero();
+    }
+
+    @Test
+    void queuesAndSendsTheMailOfACommittedRegistration() {
+        registrationService.registerUser(user("committed"));
+
+        assertThat(mailOutboxRepository.count()).isEqualTo(1);
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        assertThat(smtp.getDelivered()).containsExactly("committed@example.com");
+    }
+
+    private MailOutboxMessage queue(String recipient) {
+        return mailOutboxRepository.save(MailOutboxMessage.builder()
+                .id(UUID.randomUUID().toString())
+                .recipient(recipient)
+                .subject("subject")
+                .body("<p>body</p>")
+                .status(MailStatus.PENDING)
+                .build());
+    }
+
+    private void makeDue(String id) {
+        jdbcTemplate.update("UPDATE mail_outbox SET next_attempt_at = ? WHERE id = ?", LocalDateTime.now().minusSeconds(1), id);
+    }
+
+    private static UserDTO user(String username) {
+        UserDTO user = new UserDTO();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+    }
+}
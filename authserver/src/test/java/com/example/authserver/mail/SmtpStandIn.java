@@ -0,0 +1,123 @@
+package com.example.authserver.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal in-process SMTP server for tests. It accepts every message, except that recipients
+ * can be given a reply to {@code RCPT TO}, such as {@code 451} for a temporary failure. It counts
+ * connections and records the recipients of accepted messages.
+ */
+class SmtpStandIn implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final Map<String, String> recipientReplies = new ConcurrentHashMap<>();
+
+    SmtpStandIn() throws IOException {
+        serverSocket = new ServerSocket(0);
+        acceptor = new Thread(this::accept, "smtp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * @return the recipient of every accepted message, in order
+     */
+    List<String> getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Answers {@code RCPT TO} for the recipient with the given reply, e.g. {@code "451 try again later"}.
+     */
+    void reply(String recipient, String reply) {
+        recipientReplies.put(recipient, reply);
+    }
+
+    void reset() {
+        connections.set(0);
+        delivered.clear();
+        recipientReplies.clear();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                connections.incrementAndGet();
+                serve(socket);
+            } catch (SocketException e) {
+                // closed
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private void serve(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+        send(out, "220 localhost ESMTP stand-in");
+
+        String recipient = null;
+        for (String line; (line = in.readLine()) != null; ) {
+            String command = line.toUpperCase();
+            if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                send(out, "250 localhost");
+            } else if (command.startsWith("MAIL FROM")) {
+                recipient = null;
+                send(out, "250 OK");
+            } else if (command.startsWith("RCPT TO")) {
+                String address = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+                String reply = recipientReplies.get(address);
+                if (reply == null) {
+                    recipient = address;
+                }
+                send(out, reply != null ? reply : "250 OK");
+            } else if (command.equals("DATA")) {
+                send(out, "354 End data with <CR><LF>.<CR><LF>");
+                while (!".".equals(in.readLine())) {
+                    // message content is not inspected
+                }
+                delivered.add(recipient);
+                send(out, "250 OK");
+            } else if (command.equals("QUIT")) {
+                send(out, "221 Bye");
+                return;
+            } else {
+                send(out, "250 OK");
+            }
+        }
+    }
+
+    private static void send(PrintWriter out, String reply) {
+        out.print(reply + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
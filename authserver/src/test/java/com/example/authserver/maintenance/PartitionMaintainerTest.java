@@ -0,0 +1,129 @@
+package com.example.authserver.maintenance;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs all migrations against MySQL 8 and checks the partitions V15 creates and
+ * {@link PartitionMaintainer} maintains. Skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PartitionMaintainerTest {
+
+    private static final List<String> TABLES = List.of("access_token", "authorization_code");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    private static final long TO_DAYS_OF_EPOCH = 719528;
+
+    // the server's CURDATE() (V15) and the maintainer's LocalDate.now() must agree
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withEnv("TZ", ZoneId.systemDefault().getId());
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private MigrateResult migrateResult;
+
+    @BeforeEach
+    void migrate() {
+        dataSource = new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        migrateResult = flyway.migrate();
+    }
+
+    @Test
+    void migrationsPartitionTablesIntoHistoryAndFuture() {
+        assertThat(migrateResult.success).isTrue();
+        assertThat(migrateResult.targetSchemaVersion).isEqualTo("16");
+
+        LocalDate today = LocalDate.now();
+        for (String table : TABLES) {
+            assertThat(foreignKeys(table)).isEmpty();
+            assertThat(partitions(table)).containsExactly(
+                    "p_history<" + toDays(today.plusDays(1)),
+                    "p_future<MAXVALUE");
+        }
+    }
+
+    @Test
+    void maintainSplitsDailyPartitionsOffFuture() {
+        PartitionMaintainer maintainer = new PartitionMaintainer(dataSource, 3, 2);
+
+        maintainer.maintain();
+        maintainer.maintain();
+
+        LocalDate today = LocalDate.now();
+        for (String table : TABLES) {
+            assertThat(partitions(table)).containsExactly(
+                    "p_history<" + toDays(today.plusDays(1)),
+                    daily(today.plusDays(1)),
+                    daily(today.plusDays(2)),
+                    daily(today.plusDays(3)),
+                    "p_future<MAXVALUE");
+        }
+    }
+
+    @Test
+    void maintainDropsPartitionsPastRetention() {
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.execute("ALTER TABLE access_token REORGANIZE PARTITION p_history INTO ("
+                + "PARTITION p_old VALUES LESS THAN (" + toDays(today.minusDays(5)) + "), "
+                + "PARTITION p_history VALUES LESS THAN (" + toDays(today.plusDays(1)) + "))");
+        jdbcTemplate.update("INSERT INTO users (id, username, password, email) VALUES ('user', 'user', 'secret', 'user@example.com')");
+        jdbcTemplate.update("INSERT INTO client (id, client_id, client_name, client_authentication_methods, authorization_grant_types) " +
+                "VALUES ('client', 'client', 'client', 'none', 'authorization_code')");
+        insertAccessToken("expired", today.minusDays(10));
+        insertAccessToken("current", today);
+
+        new PartitionMaintainer(dataSource, 0, 2).maintain();
+
+        assertThat(partitions("access_token")).containsExactly(
+                "p_history<" + toDays(today.plusDays(1)),
+                "p_future<MAXVALUE");
+        assertThat(jdbcTemplate.queryForList("SELECT token FROM access_token", String.class))
+                .containsExactly("current");
+    }
+
+    private void insertAccessToken(String token, LocalDate issued) {
+        jdbcTemplate.update("INSERT INTO access_token (token, refresh_token, client_id, user_id, expires_at, " +
+                        "refresh_token_expires_at, created_at) VALUES (?, ?, 'client', 'user', NOW(), NOW(), ?)",
+                token, token + "-refresh", issued.atTime(12, 0));
+    }
+
+    private List<String> partitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT CONCAT(partition_name, '<', partition_description) FROM information_schema.partitions " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? ORDER BY partition_ordinal_position",
+                String.class, table);
+    }
+
+    private List<String> foreignKeys(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT constraint_name FROM information_schema.referential_constraints " +
+                        "WHERE constraint_schema = DATABASE() AND table_name = ?",
+                String.class, table);
+    }
+
+    private static String daily(LocalDate day) {
+        return day.format(PARTITION_NAME) + "<" + toDays(day.plusDays(1));
+    }
+
+    private static long toDays(LocalDate date) {
+        return date.toEpochDay() + TO_DAYS_OF_EPOCH;
+    }
+}
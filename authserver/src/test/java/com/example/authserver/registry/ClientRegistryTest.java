@@ -0,0 +1,122 @@
+package com.example.authserver.registry;
+
+import com.example.authserver.entity.Client;
+import com.example.authserver.repository.ClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientRegistryTest {
+
+    private final ClientRepository repository = mock(ClientRepository.class);
+    private final ClientRegistry registry = new ClientRegistry(repository, Duration.ofMinutes(1), 100,
+            new SimpleMeterRegistry());
+
+    @Test
+    void changeCommittedDuringAFullRefreshIsNotLost() throws Exception {
+        CountDownLatch refreshReading = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        when(repository.findAll()).thenAnswer(invocation -> {
+            refreshReading.countDown();
+            releaseRefresh.await(5, TimeUnit.SECONDS);
+            return List.of(client("old-secret"));
+        });
+        when(repository.findClientByClientId("client")).thenReturn(Optional.of(client("new-secret")));
+
+        Thread refresh = new Thread(registry::refresh);
+        refresh.start();
+        assertThat(refreshReading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // the secret rotation commits after the refresh has read the old row
+        Thread change = new Thread(() -> registry.onClientChanged(new ClientChangedEvent("client")));
+        change.start();
+        awaitBlocked(change);
+        releaseRefresh.countDown();
+        refresh.join(5_000);
+        change.join(5_000);
+
+        assertThat(registry.find("client")).map(ClientSnapshot::getClientSecret).contains("new-secret");
+    }
+
+    @Test
+    void changeToADeletedClientRemovesIt() {
+        when(repository.findAll()).thenReturn(List.of(client("secret")));
+        registry.refresh();
+        when(repository.findClientByClientId("client")).thenReturn(Optional.empty());
+
+        registry.onClientChanged(new ClientChangedEvent("client"));
+
+        assertThat(registry.find("client")).isEmpty();
+    }
+
+    @Test
+    void loadsClientsMissingFromTheRegistry() {
+        when(repository.findClientByClientId("client")).thenReturn(Optional.of(client("secret")));
+
+        assertThat(registry.find("client")).map(ClientSnapshot::getClientSecret).contains("secret");
+    }
+
+    @Test
+    void remembersUnknownClientIds() {
+        when(repository.findClientByClientId("unknown")).thenReturn(Optional.empty());
+
+        assertThat(registry.find("unknown")).isEmpty();
+        assertThat(registry.find("unknown")).isEmpty();
+
+        verify(repository, times(1)).findClientByClientId("unknown");
+    }
+
+    @Test
+    void clientRegisteredAfterAMissIsFoundOnceItsChangeIsPublished() {
+        when(repository.findClientByClientId("client")).thenReturn(Optional.empty());
+        assertThat(registry.find("client")).isEmpty();
+
+        when(repository.findClientByClientId("client")).thenReturn(Optional.of(client("secret")));
+        registry.onClientChanged(new ClientChangedEvent("client"));
+
+        assertThat(registry.find("client")).isPresent();
+    }
+
+    @Test
+    void fullRefreshForgetsUnknownClientIds() {
+        when(repository.findClientByClientId("client")).thenReturn(Optional.empty());
+        assertThat(registry.find("client")).isEmpty();
+
+        when(repository.findClientByClientId("client")).thenReturn(Optional.of(client("secret")));
+        registry.refresh();
+
+        assertThat(registry.find("client")).isPresent();
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+
+    private static Client client(String secret) {
+        return Client.builder()
+                .id("client-row")
+                .clientId("client")
+                .clientSecret(secret)
+                .clientName("Client")
+                .clientAuthenticationMethods("client_secret_basic")
+                .authorizationGrantTypes("authorization_code")
+                .redirectUris("http://localhost/callback")
+                .scopes("openid")
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.authserver.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void isEmptyUntilTheFirstAdd() {
+        BloomFilter filter = new BloomFilter(100);
+
+        assertThat(filter.isEmpty()).isTrue();
+        assertThat(filter.mightContain("jti".hashCode())).isFalse();
+
+        filter.add("jti".hashCode());
+
+        assertThat(filter.isEmpty()).isFalse();
+        assertThat(filter.mightContain("jti".hashCode())).isTrue();
+    }
+
+    @Test
+    void neverMissesAnAddedHash() {
+        BloomFilter filter = new BloomFilter(10_000);
+        IntStream.range(0, 10_000).forEach(filter::add);
+
+        assertThat(IntStream.range(0, 10_000).allMatch(filter::mightContain)).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateAtCapacityIsAboutOnePercent() {
+        BloomFilter filter = new BloomFilter(10_000);
+        IntStream.range(0, 10_000).forEach(filter::add);
+
+        long falsePositives = IntStream.range(10_000, 110_000).filter(filter::mightContain).count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void isOverloadedOnceMoreEntriesThanItsCapacityWereAdded() {
+        BloomFilter filter = new BloomFilter(100);
+        IntStream.range(0, 100).forEach(filter::add);
+
+        assertThat(filter.isOverloaded()).isFalse();
+
+        filter.add(100);
+
+        assertThat(filter.isOverloaded()).isTrue();
+    }
+
+    @Test
+    void smallFiltersHoldAtLeast64Entries() {
+        BloomFilter filter = new BloomFilter(1);
+        IntStream.range(0, 64).forEach(filter::add);
+
+        assertThat(filter.isOverloaded()).isFalse();
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.authserver.revocation;
+
+import com.example.authserver.entity.TokenRevocation;
+import com.example.authserver.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocationListTest {
+
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void rejectsRevokedTokensOnly() {
+        RevocationList list = loaded(100);
+
+        list.onTokenRevoked(new TokenRevokedEvent(token(1, "revoked", now.plusMinutes(15))));
+
+        assertThat(list.isRevoked("revoked", "user", "client", null)).isTrue();
+        assertThat(list.isRevoked("other", "user", "client", null)).isFalse();
+    }
+
+    @Test
+    void revokedGrantCoversTokensIssuedUpToAndIncludingIssuedBefore() {
+        RevocationList list = loaded(100);
+
+        list.onTokenRevoked(new TokenRevokedEvent(grant(1, "user", "client", now, now.plusMinutes(15))));
+
+        assertThat(list.isRevoked("a", "user", "client", instant(now.minusSeconds(1)))).isTrue();
+        assertThat(list.isRevoked("b", "user", "client", instant(now))).isTrue();
+        assertThat(list.isRevoked("c", "user", "client", instant(now.plusSeconds(1)))).isFalse();
+        assertThat(list.isRevoked("d", "user", "other-client", instant(now))).isFalse();
+        assertThat(list.isRevoked("e", "user", "client", null)).isTrue();
+    }
+
+    @Test
+    void revokedGrantKeepsTheLatestCutoff() {
+        RevocationList list = loaded(100);
+
+        list.onTokenRevoked(new TokenRevokedEvent(grant(1, "user", "client", now, now.plusMinutes(15))));
+        list.onTokenRevoked(new TokenRevokedEvent(grant(2, "user", "client", now.minusMinutes(5), now.plusMinutes(15))));
+
+        assertThat(list.isRevoked("a", "user", "client", instant(now))).isTrue();
+    }
+
+    @Test
+    void loadsUnexpiredRevocationsAtStartup() {
+        when(repository.findAllByExpiresAtAfter(any())).thenReturn(List.of(
+                token(1, "stored", now.plusMinutes(15)),
+                grant(2, "user", "client", now, now.plusMinutes(15))));
+
+        RevocationList list = loaded(100);
+
+        assertThat(list.isRevoked("stored", null, null, null)).isTrue();
+        assertThat(list.isRevoked("a", "user", "client", instant(now))).isTrue();
+        assertThat(entries()).isEqualTo(2);
+    }
+
+    @Test
+    void syncRereadsRevocationsCreatedDuringTheOverlap() {
+        LocalDateTime beforeLoad = LocalDateTime.now();
+        RevocationList list = loaded(100);
+        LocalDateTime afterLoad = LocalDateTime.now();
+
+        // committed on another node after the load, with a creation time before it
+        TokenRevocation late = token(1, "late", now.plusMinutes(15));
+        late.setCreatedAt(beforeLoad.minusSeconds(30));
+        when(repository.findAllByCreatedAtGreaterThanEqualAndExpiresAtAfter(any(), any())).thenReturn(List.of(late));
+
+        LocalDateTime beforeSync = LocalDateTime.now();
+        list.sync();
+        LocalDateTime afterSync = LocalDateTime.now();
+        list.sync();
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository, times(2)).findAllByCreatedAtGreaterThanEqualAndExpiresAtAfter(since.capture(), any());
+        assertThat(since.getAllValues().get(0)).isBetween(beforeLoad.minus(SYNC_OVERLAP), afterLoad.minus(SYNC_OVERLAP));
+        assertThat(since.getAllValues().get(1)).isBetween(beforeSync.minus(SYNC_OVERLAP), afterSync.minus(SYNC_OVERLAP));
+
+        assertThat(list.isRevoked("late", null, null, null)).isTrue();
+        assertThat(entries()).isEqualTo(1);
+    }
+
+    @Test
+    void syncDropsExpiredEntriesAndRebuildsTheFilter() {
+        RevocationList list = loaded(100);
+        list.onTokenRevoked(new TokenRevokedEvent(token(1, "expired", now.minusSeconds(1))));
+        list.onTokenRevoked(new TokenRevokedEvent(grant(2, "user", "expired-client", now, now.minusSeconds(1))));
+        list.onTokenRevoked(new TokenRevokedEvent(token(3, "live", now.plusMinutes(15))));
+        BloomFilter filter = filter(list);
+
+        list.sync();
+
+        assertThat(entries()).isEqualTo(1);
+        assertThat(filter(list)).isNotSameAs(filter);
+        assertThat(filter(list).mightContain("live".hashCode())).isTrue();
+        assertThat(list.isRevoked("live", null, null, null)).isTrue();
+        assertThat(list.isRevoked("expired", "user", "expired-client", instant(now))).isFalse();
+    }
+
+    @Test
+    void filterIsEmptyAgainOnceEverythingExpired() {
+        RevocationList list = loaded(100);
+        list.onTokenRevoked(new TokenRevokedEvent(token(1, "expired", now.minusSeconds(1))));
+
+        list.sync();
+
+        assertThat(entries()).isZero();
+        assertThat(filter(list).isEmpty()).isTrue();
+    }
+
+    @Test
+    void rebuildsTheFilterWhenOverloaded() {
+        RevocationList list = loaded(1);
+        BloomFilter filter = filter(list);
+
+        IntStream.range(0, 200).forEach(i ->
+                list.onTokenRevoked(new TokenRevokedEvent(token(i, "jti-" + i, now.plusMinutes(15)))));
+
+        assertThat(filter(list)).isNotSameAs(filter);
+        assertThat(filter(list).isOverloaded()).isFalse();
+        assertThat(IntStream.range(0, 200).allMatch(i -> list.isRevoked("jti-" + i, null, null, null))).isTrue();
+    }
+
+    @Test
+    void readersNeverMissARevocationAddedConcurrently() throws InterruptedException {
+        // a small filter, so adds keep rebuilding and swapping it while readers use it
+        RevocationList list = loaded(1);
+        int revocations = 20_000;
+        AtomicInteger published = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        Queue<String> missed = new ConcurrentLinkedQueue<>();
+
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        for (int r = 0; r < 4; r++) {
+            readers.execute(() -> {
+                while (!done.get()) {
+                    int count = published.get();
+                    if (count == 0) {
+                        continue;
+                    }
+                    String jti = "jti-" + ThreadLocalRandom.current().nextInt(count);
+                    if (!list.isRevoked(jti, null, null, null)) {
+                        missed.add(jti);
+                    }
+                    if (list.isRevoked("never-revoked", null, null, null)) {
+                        missed.add("never-revoked");
+                    }
+                }
+            });
+        }
+
+        for (int i = 0; i < revocations; i++) {
+            list.onTokenRevoked(new TokenRevokedEvent(token(i, "jti-" + i, now.plusMinutes(15))));
+            published.set(i + 1);
+        }
+        done.set(true);
+        readers.shutdown();
+
+        assertThat(readers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(missed).isEmpty();
+        assertThat(entries()).isEqualTo(revocations);
+    }
+
+    private RevocationList loaded(int expectedEntries) {
+        RevocationList list = new RevocationList(repository, expectedEntries, meterRegistry);
+        list.afterSingletonsInstantiated();
+        return list;
+    }
+
+    private double entries() {
+        return meterRegistry.get("authserver.revocation.entries").gauge().value();
+    }
+
+    private static BloomFilter filter(RevocationList list) {
+        return (BloomFilter) ReflectionTestUtils.getField(list, "filter");
+    }
+
+    private TokenRevocation token(long id, String jti, LocalDateTime expiresAt) {
+        return TokenRevocation.builder()
+                .id(id)
+                .jti(jti)
+                .userId("user")
+                .clientId("client")
+                .expiresAt(expiresAt)
+                .createdAt(now)
+                .build();
+    }
+
+    private TokenRevocation grant(long id, String userId, String clientId, LocalDateTime issuedBefore,
+                                  LocalDateTime expiresAt) {
+        return TokenRevocation.builder()
+                .id(id)
+                .userId(userId)
+                .clientId(clientId)
+                .issuedBefore(issuedBefore)
+                .expiresAt(expiresAt)
+                .createdAt(now)
+                .build();
+    }
+
+    private static Instant instant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
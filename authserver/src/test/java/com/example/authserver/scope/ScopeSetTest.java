@@ -0,0 +1,128 @@
+package com.example.authserver.scope;
+
+import com.example.authserver.enums.OpenidScopes;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScopeSetTest {
+
+    @Test
+    void parsesStandardAndCustomScopes() {
+        ScopeSet scopes = ScopeSet.parse("profile orders:read openid");
+
+        assertThat(scopes.contains(OpenidScopes.OPENID)).isTrue();
+        assertThat(scopes.contains("profile")).isTrue();
+        assertThat(scopes.contains("orders:read")).isTrue();
+        assertThat(scopes.contains(OpenidScopes.EMAIL)).isFalse();
+        assertThat(scopes.contains("orders:write")).isFalse();
+    }
+
+    @Test
+    void ignoresBlankAndDuplicateEntries() {
+        ScopeSet scopes = ScopeSet.parse("  openid  openid orders orders ");
+
+        assertThat(scopes.toString()).isEqualTo("openid orders");
+        assertThat(scopes).isEqualTo(ScopeSet.parse("orders openid"));
+    }
+
+    @Test
+    void treatsNullAndBlankAsEmpty() {
+        assertThat(ScopeSet.parse(null)).isSameAs(ScopeSet.EMPTY);
+        assertThat(ScopeSet.parse("   ")).isSameAs(ScopeSet.EMPTY);
+        assertThat(ScopeSet.of(List.of())).isSameAs(ScopeSet.EMPTY);
+        assertThat(ScopeSet.EMPTY.isEmpty()).isTrue();
+        assertThat(ScopeSet.EMPTY.toString()).isEmpty();
+    }
+
+    @Test
+    void scopesAreCaseSensitive() {
+        ScopeSet scopes = ScopeSet.parse("OpenID");
+
+        assertThat(scopes.contains(OpenidScopes.OPENID)).isFalse();
+        assertThat(scopes.contains("OpenID")).isTrue();
+    }
+
+    @Test
+    void buildsFromCollection() {
+        assertThat(ScopeSet.of(List.of("email", "", "openid", "orders")))
+                .isEqualTo(ScopeSet.parse("openid email orders"));
+    }
+
+    @Test
+    void printsKnownScopesInDeclarationOrderThenCustomScopesInInsertionOrder() {
+        assertThat(ScopeSet.parse("zeta phone alpha openid").toString()).isEqualTo("openid phone zeta alpha");
+    }
+
+    @Test
+    void roundTripsThroughItsStringForm() {
+        ScopeSet scopes = ScopeSet.parse("address orders:read email openid");
+
+        assertThat(ScopeSet.parse(scopes.toString())).isEqualTo(scopes);
+        assertThat(ScopeSet.parse(scopes.toString()).hashCode()).isEqualTo(scopes.hashCode());
+    }
+
+    @Test
+    void containsAllComparesStandardAndCustomScopes() {
+        ScopeSet granted = ScopeSet.parse("openid email orders:read");
+
+        assertThat(granted.containsAll(ScopeSet.parse("openid"))).isTrue();
+        assertThat(granted.containsAll(ScopeSet.parse("email orders:read"))).isTrue();
+        assertThat(granted.containsAll(ScopeSet.EMPTY)).isTrue();
+        assertThat(granted.containsAll(ScopeSet.parse("openid profile"))).isFalse();
+        assertThat(granted.containsAll(ScopeSet.parse("orders:write"))).isFalse();
+        assertThat(ScopeSet.EMPTY.containsAll(granted)).isFalse();
+    }
+
+    @Test
+    void unionCombinesBothKinds() {
+        ScopeSet union = ScopeSet.parse("openid orders").union(ScopeSet.parse("email orders invoices"));
+
+        assertThat(union).isEqualTo(ScopeSet.parse("openid email orders invoices"));
+        assertThat(union.toString()).isEqualTo("openid email orders invoices");
+    }
+
+    @Test
+    void unionReturnsTheSupersetUnchanged() {
+        ScopeSet superset = ScopeSet.parse("openid email orders");
+        ScopeSet subset = ScopeSet.parse("email");
+
+        assertThat(superset.union(subset)).isSameAs(superset);
+        assertThat(subset.union(superset)).isSameAs(superset);
+    }
+
+    @Test
+    void minusRemovesBothKinds() {
+        ScopeSet remaining = ScopeSet.parse("openid email orders invoices").minus(ScopeSet.parse("email orders phone"));
+
+        assertThat(remaining).isEqualTo(ScopeSet.parse("openid invoices"));
+    }
+
+    @Test
+    void minusOfDisjointScopesReturnsTheSetUnchanged() {
+        ScopeSet scopes = ScopeSet.parse("openid orders");
+
+        assertThat(scopes.minus(ScopeSet.parse("email invoices"))).isSameAs(scopes);
+        assertThat(scopes.minus(scopes).isEmpty()).isTrue();
+    }
+
+    @Test
+    void mapsToScopeAuthorities() {
+        List<GrantedAuthority> authorities = ScopeSet.parse("orders openid").toAuthorities();
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority).containsExactly("SCOPE_openid", "SCOPE_orders");
+        assertThat(authorities.get(0)).isSameAs(OpenidScopes.OPENID.getAuthority());
+    }
+
+    @Test
+    void toSetReturnsAMutableCopy() {
+        ScopeSet scopes = ScopeSet.parse("openid orders");
+
+        scopes.toSet().add("email");
+
+        assertThat(scopes.contains("email")).isFalse();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.authserver.security.authentication;
+
+import com.example.authserver.entity.AuthorizationCode;
+import com.example.authserver.entity.Client;
+import com.example.authserver.services.AuthorizationCodeStore;
+import com.example.authserver.util.HashUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PkceAuthenticationProviderTest {
+
+    // RFC 7636, appendix B
+    private static final String VERIFIER = "dBjftJeZ4CVP-mB92K27uhbUJU1p1r_wW1gFWFOEjXk";
+    private static final String S256_CHALLENGE = "E9Melhoa2OwvFrEMTJguCHaoeK1t8URWbuGJSstw-cM";
+
+    private final AuthorizationCodeStore store = mock(AuthorizationCodeStore.class);
+    private final PkceAuthenticationProvider provider = new PkceAuthenticationProvider(store);
+
+    @Test
+    void verifiesS256Challenge() {
+        givenCode("S256", S256_CHALLENGE);
+
+        Authentication result = provider.authenticate(PkceAutheticationToken.unauthenticated("code", VERIFIER));
+
+        assertThat(result.isAuthenticated()).isTrue();
+        assertThat(((PkceAutheticationToken) result).getVerifiedAuthorizationCode().getCode()).isEqualTo("code");
+    }
+
+    @Test
+    void verifiesLegacySha256Challenge() {
+        givenCode("SHA256", HashUtil.generateSha256Base64Encoded(VERIFIER));
+
+        assertThat(provider.authenticate(PkceAutheticationToken.unauthenticated("code", VERIFIER)).isAuthenticated())
+                .isTrue();
+    }
+
+    @Test
+    void verifiesPlainChallenge() {
+        givenCode("plain", VERIFIER);
+
+        assertThat(provider.authenticate(PkceAutheticationToken.unauthenticated("code", VERIFIER)).isAuthenticated())
+                .isTrue();
+    }
+
+    @Test
+    void rejectsS256ChallengeOfAnotherVerifier() {
+        givenCode("S256", S256_CHALLENGE);
+
+        assertThatThrownBy(() -> provider.authenticate(PkceAutheticationToken.unauthenticated("code", VERIFIER + "x")))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void rejectsLegacyEncodingForS256() {
+        givenCode("S256", HashUtil.generateSha256Base64Encoded(VERIFIER));
+
+        assertThatThrownBy(() -> provider.authenticate(PkceAutheticationToken.unauthenticated("code", VERIFIER)))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void rejectsUnknownMethodAndUnknownCode() {
+        givenCode("S512", S256_CHALLENGE);
+
+        assertThatThrownBy(() -> provider.authenticate(PkceAutheticationToken.unauthenticated("code", VERIFIER)))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(PkceAutheticationToken.unauthenticated("other", VERIFIER)))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    private void givenCode(String method, String challenge) {
+        AuthorizationCode code = AuthorizationCode.builder()
+                .code("code")
+                .client(Client.builder().clientId("client").build())
+                .codeChallenge(challenge)
+                .codeChallengeMethod(method)
+                .build();
+        when(store.find("code")).thenReturn(Optional.of(code));
+        when(store.find("other")).thenReturn(Optional.empty());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.authserver.security.authentication;
+
+import com.example.authserver.cache.ExpiringCache;
+import com.example.authserver.entity.TokenRevocation;
+import com.example.authserver.enums.SigningAlgorithm;
+import com.example.authserver.repository.TokenRevocationRepository;
+import com.example.authserver.revocation.RevocationList;
+import com.example.authserver.revocation.TokenRevokedEvent;
+import com.example.authserver.services.JwtService;
+import com.example.authserver.services.impl.JwtServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VerifiedTokenResolverTest {
+
+    private JwtService jwtService;
+    private RevocationList revocationList;
+    private VerifiedTokenResolver resolver;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        jwtService = spy(new JwtServiceImpl(SigningAlgorithm.RS256, keyPair.getPublic(), keyPair.getPrivate()));
+        revocationList = new RevocationList(mock(TokenRevocationRepository.class), 100, new SimpleMeterRegistry());
+        revocationList.afterSingletonsInstantiated();
+        resolver = new VerifiedTokenResolver(jwtService, new ExpiringCache<>(100), revocationList);
+    }
+
+    @Test
+    void cachesVerifiedTokens() {
+        String token = issue();
+
+        VerifiedToken first = resolver.resolve(token);
+        VerifiedToken second = resolver.resolve(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getPrincipal().getUserId()).isEqualTo("user");
+        assertThat(first.getPrincipal().getClientId()).isEqualTo("client");
+        verify(jwtService, times(1)).verifyToken(anyString());
+    }
+
+    @Test
+    void rejectsACachedTokenOnceItIsRevoked() {
+        String token = issue();
+        VerifiedToken verified = resolver.resolve(token);
+
+        revocationList.onTokenRevoked(new TokenRevokedEvent(TokenRevocation.builder()
+                .id(1L)
+                .jti(verified.getJwt().getId())
+                .userId("user")
+                .clientId("client")
+                .expiresAt(LocalDateTime.now().plusMinutes(15))
+                .build()));
+
+        assertThatThrownBy(() -> resolver.resolve(token))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage("invalid_token");
+        verify(jwtService, times(1)).verifyToken(anyString());
+    }
+
+    @Test
+    void rejectsACachedTokenOnceItsGrantIsRevoked() {
+        String token = issue();
+        VerifiedToken verified = resolver.resolve(token);
+        String otherClientToken = jwtService.generateToken("user", new Date(System.currentTimeMillis() + 900_000),
+                Map.of("scopes", "openid"), "other-client");
+        resolver.resolve(otherClientToken);
+
+        revocationList.onTokenRevoked(new TokenRevokedEvent(TokenRevocation.builder()
+                .id(1L)
+                .userId("user")
+                .clientId("client")
+                .issuedBefore(LocalDateTime.ofInstant(verified.getJwt().getIssuedAtAsInstant(), ZoneId.systemDefault()))
+                .expiresAt(LocalDateTime.now().plusMinutes(15))
+                .build()));
+
+        assertThatThrownBy(() -> resolver.resolve(token)).isInstanceOf(BadCredentialsException.class);
+        assertThat(resolver.resolve(otherClientToken).getPrincipal().getClientId()).isEqualTo("other-client");
+    }
+
+    @Test
+    void acceptsTokensIssuedAfterTheGrantWasRevoked() {
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(5);
+        revocationList.onTokenRevoked(new TokenRevokedEvent(TokenRevocation.builder()
+                .id(1L)
+                .userId("user")
+                .clientId("client")
+                .issuedBefore(LocalDateTime.ofInstant(revokedAt, ZoneId.systemDefault()))
+                .expiresAt(LocalDateTime.now().plusMinutes(15))
+                .build()));
+
+        assertThat(resolver.resolve(issue()).getPrincipal().getUserId()).isEqualTo("user");
+    }
+
+    private String issue() {
+        return jwtService.generateToken("user", new Date(System.currentTimeMillis() + 900_000),
+                Map.of("scopes", "openid"), "client");
+    }
+}
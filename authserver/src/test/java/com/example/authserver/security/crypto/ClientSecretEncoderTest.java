@@ -0,0 +1,66 @@
+package com.example.authserver.security.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class ClientSecretEncoderTest {
+
+    private static final String KEY = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String BCRYPT_HASH =
+            PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("secret");
+
+    @Test
+    void hashesWithHmacAndUpgradesBcryptWhenAKeyIsSet() {
+        ClientSecretEncoder encoder = new ClientSecretEncoder(KEY);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).startsWith("{hmac-sha256}");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("other", hash)).isFalse();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+        assertThat(encoder.matches("secret", BCRYPT_HASH)).isTrue();
+        assertThat(encoder.upgradeEncoding(BCRYPT_HASH)).isTrue();
+    }
+
+    @Test
+    void keepsBcryptWithoutAKey() {
+        ClientSecretEncoder encoder = new ClientSecretEncoder("");
+
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).startsWith("{bcrypt}");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(BCRYPT_HASH)).isFalse();
+    }
+
+    @Test
+    void doesNotMatchHmacHashesWithoutAKey() {
+        String hash = new ClientSecretEncoder(KEY).encode("secret");
+
+        assertThat(new ClientSecretEncoder("").matches("secret", hash)).isFalse();
+    }
+
+    @Test
+    void doesNotMatchHmacHashesOfAnotherKey() {
+        String hash = new ClientSecretEncoder(KEY).encode("secret");
+        String otherKey = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+        assertThat(new ClientSecretEncoder(otherKey).matches("secret", hash)).isFalse();
+    }
+
+    @Test
+    void rejectsShortOrMalformedKeys() {
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new ClientSecretEncoder(Base64.getEncoder().encodeToString(new byte[31])))
+                .withMessageContaining("at least 32 bytes");
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new ClientSecretEncoder("not base64!"))
+                .withMessageContaining("base64");
+    }
+}